@@ -0,0 +1,164 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Non-interactive CLIApp mode: plays scripted games through the real model and writes one result line
+// per game. Scripts are read in chunks that are played on all cores while the next chunk is read;
+// results are written in input order.
+//
+// Script line:  <target> <guess> <guess> ...      blank lines and lines starting with // are skipped
+//   target:     an equation from the dictionary, #<index>, or seed:<n> for new Random(n).nextInt(size)
+// Result line:  <line> <target> <W|L|U> <attempts used> <feedback> ...
+//   W won, L lost, U script ran out first; feedback is G/O/X per position, or ! for a rejected guess.
+//   A line that cannot be played is reported as <line> ERR <reason>.
+public final class BatchRunner {
+    private static final int CHUNK_LINES = 4096;
+
+    private final EquationDictionary dictionary;
+    private final Map<String, Integer> indexByEquation;
+    private final int threads;
+
+    public BatchRunner(EquationDictionary dictionary, int threads) {
+        this.dictionary = dictionary;
+        this.threads = threads;
+        indexByEquation = new HashMap<>(dictionary.size() * 2);
+        for (int i = 0; i < dictionary.size(); i++) {
+            indexByEquation.putIfAbsent(dictionary.get(i), i);
+        }
+    }
+
+    // Returns the number of games played
+    public long run(Reader scripts, Writer results) throws IOException {
+        BufferedReader reader = scripts instanceof BufferedReader ? (BufferedReader) scripts : new BufferedReader(scripts, 1 << 16);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+        long games = 0;
+        try {
+            int lineNumber = 0;
+            boolean more = true;
+            while (more) {
+                List<String> lines = new ArrayList<>(CHUNK_LINES);
+                int first = lineNumber + 1;
+                String line;
+                while (lines.size() < CHUNK_LINES && (line = reader.readLine()) != null) {
+                    lines.add(line);
+                    lineNumber++;
+                }
+                more = lines.size() == CHUNK_LINES;
+                pending.add(CompletableFuture.supplyAsync(() -> play(first, lines), pool));
+                // Bounded read-ahead keeps memory flat for inputs of any size
+                while (pending.size() > threads * 2 || (!more && !pending.isEmpty())) {
+                    Chunk chunk = pending.remove().join();
+                    results.append(chunk.output);
+                    games += chunk.games;
+                }
+            }
+            results.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+        return games;
+    }
+
+    private static final class Chunk {
+        final StringBuilder output;
+        final int games;
+
+        Chunk(StringBuilder output, int games) {
+            this.output = output;
+            this.games = games;
+        }
+    }
+
+    private Chunk play(int firstLine, List<String> lines) {
+        NumberleModel model = new NumberleModel(dictionary); // no listeners, so nothing but scoring runs
+        StringBuilder output = new StringBuilder(lines.size() * 48);
+        int games = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("//")) {
+                continue;
+            }
+            output.append(firstLine + i).append(' ');
+            if (play(model, line.split("\\s+"), output)) {
+                games++;
+            }
+            output.append('\n');
+        }
+        return new Chunk(output, games);
+    }
+
+    private boolean play(NumberleModel model, String[] tokens, StringBuilder output) {
+        int target = targetIndex(tokens[0]);
+        if (target < 0) {
+            output.append("ERR unknown target ").append(tokens[0]);
+            return false;
+        }
+        model.initialize(target);
+        StringBuilder feedback = new StringBuilder();
+        for (int i = 1; i < tokens.length && !model.isGameOver(); i++) {
+            feedback.append(' ');
+            if (model.processInput(tokens[i])) {
+                feedback.append(model.getLastResult().toLetters());
+            } else {
+                feedback.append('!');
+            }
+        }
+        output.append(model.getTargetNumber())
+                .append(model.isGameWon() ? " W " : model.isGameOver() ? " L " : " U ")
+                .append(INumberleModel.MAX_ATTEMPTS - model.getRemainingAttempts())
+                .append(feedback);
+        return true;
+    }
+
+    private int targetIndex(String token) {
+        try {
+            if (token.startsWith("#")) {
+                int index = Integer.parseInt(token.substring(1));
+                return index < dictionary.size() ? index : -1;
+            }
+            if (token.startsWith("seed:")) {
+                return new Random(Long.parseLong(token.substring(5))).nextInt(dictionary.size());
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return indexByEquation.getOrDefault(token, -1);
+    }
+
+    // Usage: java CLIApp --batch [scripts|-] [results|-]   (or java BatchRunner ...)
+    public static void main(String[] args) throws IOException {
+        Reader in = args.length > 0 && !args[0].equals("-")
+                ? Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)
+                : new InputStreamReader(System.in, StandardCharsets.UTF_8);
+        Writer out = args.length > 1 && !args[1].equals("-")
+                ? Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16);
+        BatchRunner runner = new BatchRunner(EquationDictionary.shared(), Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        long games;
+        try (Reader scripts = in; Writer results = out) {
+            games = runner.run(scripts, results);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d games in %.2f s (%.0f games/s)%n", games, seconds, games / seconds);
+    }
+}
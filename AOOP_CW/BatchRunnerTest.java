@@ -0,0 +1,20 @@
+import org.junit.jupiter.api.Test;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    @Test
+    void testBatchRunnerScripts() throws Exception {
+        EquationDictionary dictionary = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        String scripts = "// comment\n#1 1+2+3=6 abc 9-8*1=1\n4/2+0=2 1+2+3=6\nunknown\n";
+        StringWriter results = new StringWriter();
+        long games = new BatchRunner(dictionary, 2).run(new StringReader(scripts), results);
+        assertEquals(2, games);
+        assertEquals("2 9-8*1=1 W 2 OXXXXGX ! GGGGGGG\n"
+                + "3 4/2+0=2 U 1 XXGGXGX\n"
+                + "4 ERR unknown target unknown\n", results.toString(), "Results should follow input order.");
+    }
+}
@@ -1,25 +1,71 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class CLIApp {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length)); // scripted games, no prompts
+            return;
+        }
+        boolean hardMode = Arrays.asList(args).contains("--hard");
+        int lengthArg = Arrays.asList(args).indexOf("--length");
+        int length = lengthArg >= 0 && lengthArg + 1 < args.length ? Integer.parseInt(args[lengthArg + 1]) : EquationLibrary.DEFAULT_LENGTH;
+        if (!EquationLibrary.shared().interactiveLengths().contains(length)) {
+            System.out.println("Equation length must be one of " + EquationLibrary.shared().interactiveLengths());
+            return;
+        }
+        // --daily starts with the day's shared puzzle; --player <id> [--game <n>] plays that player's own
+        // no-repeat order from game n on
+        boolean daily = Arrays.asList(args).contains("--daily");
+        long player = longOption(args, "--player", -1);
+        long nextGame = longOption(args, "--game", 0);
         Scanner scanner = new Scanner(System.in);
+        DictionaryWatcher.shared(); // each new game picks up edits to the equation file
         boolean playAgain = true;
 
         while (playAgain) {
             NumberleModel model = new NumberleModel();
-            model.initialize();
+            NumberleController controller = new NumberleController(model);
+            if (GameJournal.shared() != null) {
+                GameJournal.shared().record(model);
+            }
+            model.setEquationLength(length);
+            model.setHardMode(hardMode);
+            model.addListener(new GameListener() {
+                @Override
+                public void guessRejected(GameEvent.GuessRejected event) {
+                    System.out.println(event.getReason() + ". Please try again.");
+                }
+            });
+            if (daily) {
+                model.initializeDaily(LocalDate.now(ZoneOffset.UTC));
+                daily = false; // playing again continues with ordinary games
+            } else if (player >= 0) {
+                System.out.println("Player " + player + ", game " + nextGame + " (continue with --game " + (nextGame + 1) + ")");
+                model.followSchedule(player, nextGame++);
+                model.initialize();
+            } else {
+                model.initialize();
+            }
             assert model.getTargetNumber() != null : "Target number must be initialized";
             System.out.println("Symbols: √ is correct character and position, ? is Correct character, wrong position, X is Character not in equation");
             while (!model.isGameOver()) {
                 System.out.println("Current Guess: " + model.getCurrentGuess());
                 System.out.println("Remaining Attempts: " + model.getRemainingAttempts());
                 assert model.getRemainingAttempts() > 0 : "There should be remaining attempts if game is not over";
-                System.out.println("Enter your equation (7 characters, e.g., '1+2+3=6'): ");
+                System.out.println("Enter your equation (" + length + " characters, e.g., '" + model.getEquations().get(0) + "') or 'hint': ");
                 String input = scanner.nextLine();
                 assert input != null : "Input should not be null";
-                if (!model.processInput(input)) {
-                    System.out.println("Invalid input or equation does not balance. Please try again.");
+                if (input.trim().equalsIgnoreCase("hint")) {
+                    // The hint is printed when ready; the prompt keeps reading guesses meanwhile
+                    controller.requestHint().thenAccept(hint ->
+                            System.out.println(hint != null ? "Hint: try " + hint : "Hint: no equation matches the feedback so far"));
+                    continue;
                 }
+                model.processInput(input); // rejections are reported by the listener above
                 assert model.getCurrentGuess() != null : "Current guess should be updated";
                 if (model.isGameWon()) {
                     System.out.println("Congratulations! You have guessed correctly! The correct equation was:" + model.getTargetNumber());
@@ -47,4 +93,9 @@ public class CLIApp {
 
         scanner.close();
     }
+
+    private static long longOption(String[] args, String name, long fallback) {
+        int at = Arrays.asList(args).indexOf(name);
+        return at >= 0 && at + 1 < args.length ? Long.parseLong(args[at + 1]) : fallback;
+    }
 }
@@ -0,0 +1,62 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Bitsets over a dictionary, one bit per equation: which equations have a given symbol at a given
+// position, and which contain a given symbol at least k times. Feedback then narrows a CandidateSet by
+// ANDing whole words instead of rescanning strings. Memory is 2 * SIZE * length bits per equation.
+public final class CandidateIndex {
+    private final int size;
+    private final int length;
+    private final int words;
+    // One array for both tables so a narrowing step is just a list of offsets:
+    // symbol at position at ((position * SIZE + symbol) * words), then
+    // at least count copies at ((length * SIZE + symbol * length + count - 1) * words)
+    private final long[] bits;
+
+    CandidateIndex(EquationDictionary dictionary) {
+        size = dictionary.size();
+        length = dictionary.length();
+        words = (size + 63) >>> 6;
+        bits = new long[2 * length * EquationAlphabet.SIZE * words];
+        // Each task owns one word of every bitset, so the parallel build needs no synchronization
+        IntStream.range(0, words).parallel().forEach(word -> {
+            int[] counts = new int[EquationAlphabet.SIZE];
+            int end = Math.min(size, (word + 1) << 6);
+            for (int i = word << 6; i < end; i++) {
+                long bit = 1L << i;
+                long packed = dictionary.packedAt(i);
+                Arrays.fill(counts, 0);
+                for (int p = 0; p < length; p++) {
+                    int symbol = (int) (packed >>> (p << 2)) & 0xF;
+                    bits[positionOffset(p, symbol) + word] |= bit;
+                    bits[countOffset(symbol, ++counts[symbol]) + word] |= bit;
+                }
+            }
+        });
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    int words() {
+        return words;
+    }
+
+    int positionOffset(int position, int symbol) {
+        return (position * EquationAlphabet.SIZE + symbol) * words;
+    }
+
+    int countOffset(int symbol, int count) {
+        assert count >= 1 && count <= length : "Count out of range";
+        return (length * EquationAlphabet.SIZE + symbol * length + count - 1) * words;
+    }
+
+    long[] bits() {
+        return bits;
+    }
+}
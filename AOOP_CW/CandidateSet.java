@@ -0,0 +1,180 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+// The dictionary equations still consistent with the feedback so far, as a bitset. narrow() turns one
+// scored guess into at most 2 * length bitset operations and applies them all in a single pass over the
+// words. Big dictionaries split the first pass across cores; once few candidates remain only the words
+// that still have bits set are visited.
+public final class CandidateSet {
+    private static final int PARALLEL_WORDS = 1 << 14; // about a million equations
+    private static final int BLOCK_WORDS = 1 << 12;
+
+    private final EquationDictionary dictionary;
+    private final CandidateIndex index;
+    private final long[] bits;
+    private int count;
+    private int[] live;   // words with bits set, once the set is sparse; null while dense
+    private int liveCount;
+
+    // Scratch for narrow(): offsets of the bitsets to AND (or AND NOT) into the set
+    private final int[] and = new int[2 * Feedback.MAX_LENGTH];
+    private final int[] andNot = new int[2 * Feedback.MAX_LENGTH];
+    private final int[] found = new int[EquationAlphabet.SIZE];
+
+    public CandidateSet(EquationDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.index = dictionary.candidateIndex();
+        this.bits = new long[index.words()];
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(bits, -1L);
+        int tail = index.size() & 63;
+        if (tail != 0) {
+            bits[bits.length - 1] = (1L << tail) - 1;
+        }
+        count = index.size();
+        live = null;
+    }
+
+    // Keeps only the equations that would have produced exactly this feedback for this guess
+    public void narrow(GuessResult result) {
+        int length = index.length();
+        assert result.length() == length : "Guess and dictionary must have the same length";
+        int ands = 0;
+        int andNots = 0;
+        int gray = 0;
+        Arrays.fill(found, 0);
+        for (int p = 0; p < length; p++) {
+            int symbol = EquationAlphabet.indexOf(result.getSymbol(p));
+            int state = result.getState(p);
+            if (state == Feedback.CORRECT) {
+                and[ands++] = index.positionOffset(p, symbol);
+                found[symbol]++;
+            } else {
+                andNot[andNots++] = index.positionOffset(p, symbol);
+                if (state == Feedback.PRESENT) {
+                    found[symbol]++;
+                } else {
+                    gray |= 1 << symbol;
+                }
+            }
+        }
+        // Every copy found is at least that many in the target; a gray copy means no more than that
+        for (int symbol = 0; symbol < EquationAlphabet.SIZE; symbol++) {
+            if (found[symbol] > 0) {
+                and[ands++] = index.countOffset(symbol, found[symbol]);
+            }
+            if ((gray >>> symbol & 1) != 0 && found[symbol] < length) {
+                andNot[andNots++] = index.countOffset(symbol, found[symbol] + 1);
+            }
+        }
+
+        final int andCount = ands;
+        final int andNotCount = andNots;
+        if (live != null) {
+            // Sparse: visit the surviving words only, compacting the list as words empty out
+            int total = 0;
+            int kept = 0;
+            for (int i = 0; i < liveCount; i++) {
+                int word = live[i];
+                long m = narrowWord(word, andCount, andNotCount);
+                if (m != 0) {
+                    live[kept++] = word;
+                    total += Long.bitCount(m);
+                }
+            }
+            liveCount = kept;
+            count = total;
+            return;
+        }
+        if (bits.length >= PARALLEL_WORDS) {
+            count = IntStream.range(0, (bits.length + BLOCK_WORDS - 1) / BLOCK_WORDS).parallel()
+                    .map(block -> narrowRange(block * BLOCK_WORDS, Math.min(bits.length, (block + 1) * BLOCK_WORDS), andCount, andNotCount))
+                    .sum();
+        } else {
+            count = narrowRange(0, bits.length, andCount, andNotCount);
+        }
+        if (count <= bits.length >>> 2) {
+            live = new int[count];
+            liveCount = 0;
+            for (int word = 0; word < bits.length; word++) {
+                if (bits[word] != 0) {
+                    live[liveCount++] = word;
+                }
+            }
+        }
+    }
+
+    private int narrowRange(int from, int to, int ands, int andNots) {
+        int total = 0;
+        for (int word = from; word < to; word++) {
+            total += Long.bitCount(narrowWord(word, ands, andNots));
+        }
+        return total;
+    }
+
+    private long narrowWord(int word, int ands, int andNots) {
+        long[] source = index.bits();
+        long m = bits[word];
+        for (int i = 0; i < ands && m != 0; i++) {
+            m &= source[and[i] + word];
+        }
+        for (int i = 0; i < andNots && m != 0; i++) {
+            m &= ~source[andNot[i] + word];
+        }
+        bits[word] = m;
+        return m;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean contains(int equation) {
+        return (bits[equation >>> 6] >>> equation & 1) != 0;
+    }
+
+    // Dictionary positions of the remaining equations, in dictionary order
+    public int[] indices() {
+        int[] result = new int[count];
+        int n = 0;
+        for (int i = 0, words = live != null ? liveCount : bits.length; i < words; i++) {
+            int word = live != null ? live[i] : i;
+            for (long m = bits[word]; m != 0; m &= m - 1) {
+                result[n++] = (word << 6) + Long.numberOfTrailingZeros(m);
+            }
+        }
+        return result;
+    }
+
+    // Snapshot of the remaining equations, unpacked on access
+    public List<String> equations() {
+        int[] indices = indices();
+        return new Snapshot(dictionary, indices);
+    }
+
+    private static final class Snapshot extends AbstractList<String> implements RandomAccess {
+        private final EquationDictionary dictionary;
+        private final int[] indices;
+
+        Snapshot(EquationDictionary dictionary, int[] indices) {
+            this.dictionary = dictionary;
+            this.indices = indices;
+        }
+
+        @Override
+        public String get(int i) {
+            return dictionary.get(indices[i]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+}
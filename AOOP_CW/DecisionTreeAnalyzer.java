@@ -0,0 +1,322 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Offline batch tool: builds a guessing strategy tree for every opening over the dictionary,
+// reports average/worst guesses and the targets not solved within MAX_ATTEMPTS, and writes
+// the best tree as a StrategyTree file.
+//
+// Below the opening each node tries the beamWidth most informative guesses (plus candidates
+// when few remain), skips guesses whose lower bound cannot beat the best found so far and
+// memoizes results by candidate subset, which many openings share. The memo stops growing at MEMO_LIMIT
+// subsets; later subsets are solved again when they recur.
+public class DecisionTreeAnalyzer {
+    private static final int DEFAULT_BEAM_WIDTH = 8;
+    private static final int MEMO_LIMIT = 1 << 18;
+    private static final int PARALLEL_THRESHOLD = 48; // subsets at least this big solve their children in parallel
+
+    private final NumberleSolver solver;
+    private final List<String> equations;
+    private final int beamWidth;
+    private final int solvedPattern;
+    private final ConcurrentHashMap<Subset, Node> memo = new ConcurrentHashMap<>();
+
+    // One decision: guess the equation, then continue with children[i] after feedback codes[i]
+    static final class Node {
+        final int guess;
+        final boolean hit;      // the guess is itself one of the candidates at this node
+        final int cost;         // total guesses summed over every candidate below this node
+        final int depth;        // guesses needed for the worst candidate below this node
+        final int[] codes;      // packed feedback codes, ascending
+        final Node[] children;
+
+        Node(int guess, boolean hit, int cost, int depth, int[] codes, Node[] children) {
+            this.guess = guess;
+            this.hit = hit;
+            this.cost = cost;
+            this.depth = depth;
+            this.codes = codes;
+            this.children = children;
+        }
+    }
+
+    // Result for one opening
+    public static final class Report {
+        final String opening;
+        final double average;
+        final int worst;
+        final List<String> unsolved;
+        final Node tree;
+
+        Report(String opening, double average, int worst, List<String> unsolved, Node tree) {
+            this.opening = opening;
+            this.average = average;
+            this.worst = worst;
+            this.unsolved = unsolved;
+            this.tree = tree;
+        }
+    }
+
+    public DecisionTreeAnalyzer(List<String> equations, int beamWidth) {
+        this.solver = new NumberleSolver(equations);
+        this.equations = List.copyOf(equations);
+        this.beamWidth = beamWidth;
+        this.solvedPattern = solver.patternCount() - 1; // every position correct
+    }
+
+    public Report analyzeOpening(int opening) {
+        int[] all = IntStream.range(0, equations.size()).toArray();
+        Node tree = expand(all, opening, Integer.MAX_VALUE);
+        List<String> unsolved = new ArrayList<>();
+        collectUnsolved(tree, 1, unsolved);
+        return new Report(equations.get(opening), (double) tree.cost / all.length, tree.depth, unsolved, tree);
+    }
+
+    // Analyzes every opening in parallel, best average first
+    public List<Report> analyzeAll() {
+        return IntStream.range(0, equations.size()).parallel()
+                .mapToObj(this::analyzeOpening)
+                .sorted(Comparator.<Report>comparingDouble(r -> r.average).thenComparingInt(r -> r.worst))
+                .collect(Collectors.toList());
+    }
+
+    private void collectUnsolved(Node node, int depth, List<String> unsolved) {
+        if (node.hit && depth > INumberleModel.MAX_ATTEMPTS) {
+            unsolved.add(equations.get(node.guess));
+        }
+        for (Node child : node.children) {
+            collectUnsolved(child, depth + 1, unsolved);
+        }
+    }
+
+    // Best tree for a candidate subset
+    private Node solve(int[] subset) {
+        if (subset.length == 1) {
+            return new Node(subset[0], true, 1, 1, new int[0], new Node[0]);
+        }
+        Subset key = new Subset(subset);
+        Node known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        Node best = best(subset, shortlist(subset));
+        if (best == null) {
+            // No shortlisted guess splits the subset; a candidate always does, as it solves itself
+            best = best(subset, subset);
+        }
+        if (memo.size() < MEMO_LIMIT) {
+            memo.put(key, best);
+        }
+        return best;
+    }
+
+    // Cheapest tree over the given guesses, null if none of them splits the subset
+    private Node best(int[] subset, int[] guesses) {
+        Node best = null;
+        for (int guess : guesses) {
+            Node node = expand(subset, guess, best == null ? Integer.MAX_VALUE : best.cost);
+            if (node != null && (best == null || node.cost < best.cost
+                    || (node.cost == best.cost && node.depth < best.depth))) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    // Tree that plays guess on subset, or null if it cannot cost less than bound
+    private Node expand(int[] subset, int guess, int bound) {
+        int patterns = solver.patternCount();
+        int[] counts = new int[patterns];
+        for (int candidate : subset) {
+            counts[solver.pattern(guess, candidate)]++;
+        }
+        boolean hit = counts[solvedPattern] > 0;
+        int groups = 0;
+        int lowerBound = subset.length;
+        for (int pattern = 0; pattern < patterns; pattern++) {
+            if (counts[pattern] > 0 && pattern != solvedPattern) {
+                if (counts[pattern] == subset.length) {
+                    return null; // the guess does not split the subset
+                }
+                groups++;
+                lowerBound += 2 * counts[pattern] - 1;
+            }
+        }
+        if (lowerBound > bound) {
+            return null;
+        }
+
+        // Group the candidates by pattern; ascending pattern order is also ascending packed code order
+        int[][] parts = new int[groups][];
+        int[] codes = new int[groups];
+        int[] slot = new int[patterns];
+        int group = 0;
+        for (int pattern = 0; pattern < patterns; pattern++) {
+            if (counts[pattern] > 0 && pattern != solvedPattern) {
+                slot[pattern] = group;
+                parts[group] = new int[counts[pattern]];
+                codes[group++] = packedCode(pattern);
+                counts[pattern] = 0;
+            }
+        }
+        for (int candidate : subset) {
+            int pattern = solver.pattern(guess, candidate);
+            if (pattern != solvedPattern) {
+                parts[slot[pattern]][counts[pattern]++] = candidate;
+            }
+        }
+
+        Node[] children = new Node[groups];
+        int cost = subset.length;
+        int depth = 0;
+        if (subset.length >= PARALLEL_THRESHOLD && ForkJoinTask.inForkJoinPool()) {
+            List<SolveTask> tasks = new ArrayList<>(groups);
+            for (int[] part : parts) {
+                tasks.add(new SolveTask(part));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < groups; i++) {
+                children[i] = tasks.get(i).join();
+            }
+        } else {
+            for (int i = 0; i < groups; i++) {
+                children[i] = solve(parts[i]);
+                // Stop as soon as the partial cost shows this guess cannot win
+                if (cost + children[i].cost > bound) {
+                    return null;
+                }
+            }
+        }
+        for (Node child : children) {
+            cost += child.cost;
+            depth = Math.max(depth, child.depth);
+        }
+        return cost > bound ? null : new Node(guess, hit, cost, depth + 1, codes, children);
+    }
+
+    // The beamWidth guesses with the highest partition entropy, preferring candidates on ties
+    private int[] shortlist(int[] subset) {
+        if (subset.length <= 2) {
+            return new int[]{subset[0]};
+        }
+        int width = Math.min(beamWidth, equations.size());
+        int[] best = new int[width];
+        double[] bestScore = new double[width];
+        Arrays.fill(bestScore, Double.NEGATIVE_INFINITY);
+        boolean[] inSubset = new boolean[equations.size()];
+        for (int candidate : subset) {
+            inSubset[candidate] = true;
+        }
+
+        int[] counts = new int[solver.patternCount()];
+        for (int guess = 0; guess < equations.size(); guess++) {
+            for (int candidate : subset) {
+                counts[solver.pattern(guess, candidate)]++;
+            }
+            double weighted = 0;
+            for (int candidate : subset) {
+                int pattern = solver.pattern(guess, candidate);
+                if (counts[pattern] > 0) {
+                    weighted += counts[pattern] * Math.log(counts[pattern]);
+                    counts[pattern] = 0;
+                }
+            }
+            double score = -weighted + (inSubset[guess] ? 1e-6 : 0);
+            // Insertion into the small sorted beam
+            int position = width;
+            while (position > 0 && score > bestScore[position - 1]) {
+                position--;
+            }
+            if (position < width) {
+                System.arraycopy(best, position, best, position + 1, width - position - 1);
+                System.arraycopy(bestScore, position, bestScore, position + 1, width - position - 1);
+                best[position] = guess;
+                bestScore[position] = score;
+            }
+        }
+        return best;
+    }
+
+    // Inverse of NumberleSolver.patternIndex: position i is base-3 digit i
+    private int packedCode(int pattern) {
+        int code = 0;
+        for (int i = 0; i < equations.get(0).length(); i++) {
+            code |= ((pattern % 3) + Feedback.ABSENT) << (i << 1);
+            pattern /= 3;
+        }
+        return code;
+    }
+
+    private final class SolveTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+        private final int[] subset;
+
+        SolveTask(int[] subset) {
+            this.subset = subset;
+        }
+
+        @Override
+        protected Node compute() {
+            return solve(subset);
+        }
+    }
+
+    // Sorted candidate indexes used as a memo key
+    private static final class Subset {
+        private final int[] members;
+        private final int hash;
+
+        Subset(int[] members) {
+            this.members = members;
+            this.hash = Arrays.hashCode(members);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Subset && Arrays.equals(members, ((Subset) o).members);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Usage: java DecisionTreeAnalyzer [tree output path] [beam width]
+    public static void main(String[] args) throws Exception {
+        Path output = Paths.get(args.length > 0 ? args[0] : "strategy.tree");
+        int beamWidth = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BEAM_WIDTH;
+        List<String> equations = new NumberleModel().getEquations();
+
+        long start = System.nanoTime();
+        DecisionTreeAnalyzer analyzer = new DecisionTreeAnalyzer(equations, beamWidth);
+        List<Report> reports = ForkJoinPool.commonPool().submit(analyzer::analyzeAll).get();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%-14s %8s %6s %9s%n", "Opening", "Average", "Worst", "Unsolved");
+        for (Report report : reports) {
+            System.out.printf("%-14s %8.4f %6d %9d%n",
+                    report.opening, report.average, report.worst, report.unsolved.size());
+        }
+        Report best = reports.get(0);
+        System.out.println("Best opening: " + best.opening + " (" + equations.size() + " equations, "
+                + elapsed + " ms)");
+        if (!best.unsolved.isEmpty()) {
+            System.out.println("Not solved within " + INumberleModel.MAX_ATTEMPTS + " attempts: " + best.unsolved);
+        }
+
+        StrategyTree tree = StrategyTree.from(best.tree, equations);
+        tree.write(output);
+        System.out.println("Strategy tree with " + tree.nodeCount() + " nodes written to " + output);
+    }
+}
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTreeAnalyzerTest {
+    private static final List<String> EQUATIONS = EquationGenerator.generate(5).subList(0, 40);
+
+    @Test
+    void testTwoEquations() {
+        DecisionTreeAnalyzer.Report report = new DecisionTreeAnalyzer(List.of("1+2=3", "2+1=3"), 4).analyzeOpening(0);
+        assertEquals(1.5, report.average, 1e-9, "One target is the opening, the other takes a second guess.");
+        assertEquals(2, report.worst);
+        assertTrue(report.unsolved.isEmpty());
+    }
+
+    @Test
+    void testReportMatchesPlayingTheWrittenTree(@TempDir Path dir) throws Exception {
+        // A beam of 0 shortlists nothing, so every node falls back to guessing its own candidates
+        for (int beamWidth : new int[]{0, 1, 8}) {
+            DecisionTreeAnalyzer.Report report = new DecisionTreeAnalyzer(EQUATIONS, beamWidth).analyzeOpening(0);
+            StrategyTree tree = StrategyTree.from(report.tree, EQUATIONS);
+            Path file = dir.resolve("strategy-" + beamWidth + ".tree");
+            tree.write(file);
+            StrategyTree loaded = StrategyTree.load(file);
+            assertTrue(loaded.matches(EQUATIONS), "The tree should recognise its own dictionary.");
+            assertFalse(loaded.matches(List.of("1+2=3")));
+            assertEquals(tree.nodeCount(), loaded.nodeCount());
+
+            int total = 0;
+            int worst = 0;
+            int[] counts = new int[EquationAlphabet.SIZE];
+            for (String target : EQUATIONS) {
+                List<GuessResult> history = new ArrayList<>();
+                while (history.isEmpty() || !history.get(history.size() - 1).isCorrect()) {
+                    String guess = loaded.nextGuess(EQUATIONS, history);
+                    assertNotNull(guess, "Every target should be reachable in the tree.");
+                    assertEquals(tree.nextGuess(EQUATIONS, history), guess, "The loaded tree plays like the written one.");
+                    history.add(new GuessResult(guess, Feedback.score(guess, target, counts)));
+                }
+                total += history.size();
+                worst = Math.max(worst, history.size());
+            }
+            assertEquals(EQUATIONS.get(0), report.opening);
+            assertEquals((double) total / EQUATIONS.size(), report.average, 1e-9, "Beam " + beamWidth + " average.");
+            assertEquals(worst, report.worst, "Beam " + beamWidth + " worst case.");
+        }
+    }
+}
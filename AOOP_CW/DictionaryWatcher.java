@@ -0,0 +1,140 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+// Reloads the equation file given by -Dnumberle.equations when it changes on disk. The file is parsed and
+// checked on the watcher thread, and only a file in which every line is a balanced equation of the
+// current length replaces EquationDictionary.shared(); anything else is rejected and the old dictionary
+// stays. The swap is one volatile write, so processInput and initialize never wait for a reload: games
+// in progress keep their target, and every new game picks from the newest dictionary.
+//
+// -Dnumberle.equations.watch=false turns it off. The parent directory is watched, so editors that save
+// by writing a new file and renaming it over the old one are noticed too.
+public final class DictionaryWatcher implements Closeable {
+    public static final String WATCH_PROPERTY = "numberle.equations.watch";
+    // Editors and copy tools write a file in several steps; reload once it has been quiet this long
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path file;
+    private final WatchService service;
+    private final NumberleMetrics metrics = NumberleMetrics.shared();
+    private volatile EquationDictionary current;
+    private volatile boolean closed;
+
+    // Reloads of the file supersede current, which was read from it
+    DictionaryWatcher(Path file, EquationDictionary current) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.current = current;
+        service = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "numberle-dictionary-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static final class Shared {
+        static final DictionaryWatcher INSTANCE = startConfigured();
+    }
+
+    // Started on first call; null when the dictionary does not come from a file or watching is off
+    public static DictionaryWatcher shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static DictionaryWatcher startConfigured() {
+        String path = System.getProperty(EquationDictionary.PATH_PROPERTY);
+        if (path == null || !Boolean.parseBoolean(System.getProperty(WATCH_PROPERTY, "true"))) {
+            return null;
+        }
+        try {
+            return new DictionaryWatcher(Paths.get(path), EquationDictionary.shared());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Dictionary reloading disabled: " + e);
+            return null;
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                boolean changed = touchesFile(service.take());
+                WatchKey key;
+                while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= touchesFile(key);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean touchesFile(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // After an overflow the events are lost, so the file may have changed
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                touched = true;
+            }
+        }
+        key.reset();
+        return touched;
+    }
+
+    // The dictionary most recently read from the file
+    public EquationDictionary current() {
+        return current;
+    }
+
+    // Reads the file now and swaps it in if it is valid; false if it was rejected. Only the watcher
+    // thread calls this, apart from tests.
+    public boolean reload() {
+        EquationDictionary current = this.current;
+        try {
+            EquationDictionary next = EquationDictionary.load(file);
+            String problem = problem(next, current.length());
+            if (problem != null) {
+                throw new IOException(problem);
+            }
+            EquationDictionary.supersede(current, next);
+            this.current = next;
+            metrics.dictionaryReloads.increment();
+            System.err.println("Equation dictionary reloaded: " + next.size() + " equations from " + file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            metrics.dictionaryReloadsRejected.increment();
+            System.err.println("Equation dictionary reload rejected, keeping the current " + current.size()
+                    + " equations: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Why the dictionary cannot replace one of the given length, or null if it can
+    static String problem(EquationDictionary next, int length) {
+        if (next.length() != length) {
+            return "equations have length " + next.length() + " instead of " + length;
+        }
+        for (int i = 0; i < next.size(); i++) {
+            String equation = next.get(i);
+            if (!NumberleModel.isValidEquation(equation)) {
+                return "equation " + (i + 1) + " is not a valid equation: " + equation;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        service.close();
+    }
+}
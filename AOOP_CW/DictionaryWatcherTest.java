@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryWatcherTest {
+
+    @Test
+    void testDictionaryHotReloadKeepsGamesAndRejectsBadFiles() throws Exception {
+        Path directory = Files.createTempDirectory("equations");
+        Path file = directory.resolve("equations.txt");
+        Files.write(file, List.of("1+2+3=6", "9-8*1=1"));
+        EquationDictionary original = EquationDictionary.load(file);
+        try (DictionaryWatcher watcher = new DictionaryWatcher(file, original)) {
+            NumberleModel model = new NumberleModel(original);
+            model.initialize(0);
+            assertTrue(model.processInput("9-8*1=1"));
+
+            Files.write(file, List.of("4/2+0=2", "5+5-3=7", "8*1-1=7"));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (watcher.current() == original && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            EquationDictionary reloaded = watcher.current();
+            assertEquals(3, reloaded.size(), "A valid file should be swapped in.");
+            assertSame(reloaded, original.latest());
+
+            assertEquals("1+2+3=6", model.getTargetNumber(), "The game in progress keeps its target.");
+            assertTrue(model.processInput("1+2+3=6"));
+            assertTrue(model.isGameWon());
+            model.startNewGame();
+            assertEquals(3, model.getEquations().size(), "New games pick from the reloaded equations.");
+
+            long rejected = NumberleMetrics.shared().getDictionaryReloadsRejected();
+            Files.write(file, List.of("4/2+0=2", "1+1+1=4"));
+            deadline = System.currentTimeMillis() + 10_000;
+            while (NumberleMetrics.shared().getDictionaryReloadsRejected() == rejected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(rejected + 1, NumberleMetrics.shared().getDictionaryReloadsRejected());
+            assertSame(reloaded, watcher.current(), "An unbalanced equation keeps the previous dictionary.");
+            Files.write(file, List.of("12+34=46"));
+            assertFalse(watcher.reload(), "Equations of another length are rejected.");
+            assertSame(reloaded, original.latest());
+        } finally {
+            Files.delete(file);
+            Files.delete(directory);
+        }
+    }
+}
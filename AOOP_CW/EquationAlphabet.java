@@ -0,0 +1,26 @@
+// The 15 symbols a Numberle equation may use, numbered 0-14 so they fit in 4 bits
+public final class EquationAlphabet {
+    public static final int SIZE = 15;
+    public static final String SYMBOLS = "0123456789+-*/=";
+
+    private static final byte[] INDEX = new byte[128];
+
+    static {
+        java.util.Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < SIZE; i++) {
+            INDEX[SYMBOLS.charAt(i)] = (byte) i;
+        }
+    }
+
+    private EquationAlphabet() {
+    }
+
+    // Returns the symbol number of c, or -1 if c is not part of the alphabet
+    public static int indexOf(char c) {
+        return c < 128 ? INDEX[c] : -1;
+    }
+
+    public static char symbolAt(int index) {
+        return SYMBOLS.charAt(index);
+    }
+}
@@ -0,0 +1,314 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Immutable list of equations of one length, each packed into a long at 4 bits per symbol
+// (symbol i in bits 4i..4i+3, numbered as in EquationAlphabet). One instance is shared per JVM at a
+// time; DictionaryWatcher can replace it while the game runs.
+//
+// Binary file layout (big-endian): magic, version, length, count as ints, then count longs,
+// so a file can be memory-mapped and copied in with one bulk read.
+public final class EquationDictionary {
+    public static final String PATH_PROPERTY = "numberle.equations";
+    public static final String RESOURCE = "/equations.txt";
+    public static final int MAX_LENGTH = 16;
+
+    private static final int MAGIC = 0x4E444943; // "NDIC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final long[] packed;
+    private final int length;
+    private final List<String> view = new EquationList();
+    private volatile CandidateIndex candidateIndex;
+    private volatile NumberleSolver solver;
+    private volatile EquationDictionary replacement; // set once, when a reload supersedes this dictionary
+
+    private EquationDictionary(long[] packed, int length) {
+        this.packed = packed;
+        this.length = length;
+    }
+
+    // Loaded on first use from -Dnumberle.equations, otherwise from equations.txt on the classpath, and held
+    // to the same rules as a reload. There is no fallback: a missing or invalid file fails the first use.
+    private static final class Shared {
+        static volatile EquationDictionary current = loadDefault();
+    }
+
+    public static EquationDictionary shared() {
+        return Shared.current;
+    }
+
+    // Makes next the reload of previous, and the shared dictionary if previous was. Holders of previous
+    // find next through latest().
+    static synchronized void supersede(EquationDictionary previous, EquationDictionary next) {
+        assert previous.replacement == null && next != previous : "Only the latest dictionary can be reloaded";
+        previous.replacement = next;
+        if (Shared.current == previous) {
+            Shared.current = next;
+        }
+    }
+
+    // The newest reload of this dictionary, or this one if it was never replaced. One volatile read
+    // when nothing changed.
+    public EquationDictionary latest() {
+        EquationDictionary latest = this;
+        while (latest.replacement != null) {
+            latest = latest.replacement;
+        }
+        return latest;
+    }
+
+    private static EquationDictionary loadDefault() {
+        long start = System.nanoTime();
+        try {
+            return loadConfigured();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            NumberleMetrics.shared().dictionaryLoadTime.record(elapsed);
+        }
+    }
+
+    static EquationDictionary loadConfigured() {
+        String path = System.getProperty(PATH_PROPERTY);
+        String source = path != null ? path : "classpath:" + RESOURCE;
+        EquationDictionary dictionary;
+        try {
+            if (path != null) {
+                dictionary = load(Paths.get(path));
+            } else {
+                try (InputStream in = EquationDictionary.class.getResourceAsStream(RESOURCE)) {
+                    if (in == null) {
+                        throw new IOException("No " + PATH_PROPERTY + " set and " + RESOURCE + " not on the classpath");
+                    }
+                    NumberleEvents.DictionaryLoad event = new NumberleEvents.DictionaryLoad();
+                    event.begin();
+                    dictionary = parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+                    commit(event, source, dictionary, -1);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Equation dictionary " + source + " is unreadable: " + e.getMessage(), e);
+        }
+        String problem = DictionaryWatcher.problem(dictionary, dictionary.length());
+        if (problem != null) {
+            throw new IllegalArgumentException("Equation dictionary " + source + " is invalid: " + problem);
+        }
+        return dictionary;
+    }
+
+    // Reads a binary dictionary, or a text file with one equation per line
+    public static EquationDictionary load(Path path) throws IOException {
+        NumberleEvents.DictionaryLoad event = new NumberleEvents.DictionaryLoad();
+        event.begin();
+        EquationDictionary dictionary = loadFile(path);
+        commit(event, path.toString(), dictionary, Files.size(path));
+        return dictionary;
+    }
+
+    private static void commit(NumberleEvents.DictionaryLoad event, String source, EquationDictionary dictionary, long bytes) {
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.count = dictionary.size();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private static EquationDictionary loadFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() >= HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(4);
+                channel.read(header, 0);
+                if (header.getInt(0) == MAGIC) {
+                    return readBinary(channel, path);
+                }
+            }
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    private static EquationDictionary readBinary(FileChannel channel, Path path) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int length = buffer.getInt(8);
+        int count = buffer.getInt(12);
+        if (buffer.getInt(4) != VERSION || length < 1 || length > MAX_LENGTH || count < 1
+                || channel.size() != HEADER_BYTES + (long) count * Long.BYTES) {
+            throw new IOException("Corrupt equation dictionary: " + path);
+        }
+        long[] packed = new long[count];
+        LongBuffer longs = buffer.position(HEADER_BYTES).slice().asLongBuffer();
+        longs.get(packed);
+        return new EquationDictionary(packed, length);
+    }
+
+    static EquationDictionary parse(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return of(lines);
+    }
+
+    // Packs the equations; they must all have the same length and use only alphabet symbols
+    public static EquationDictionary of(List<String> equations) {
+        if (equations.isEmpty()) {
+            throw new IllegalArgumentException("An equation dictionary must not be empty");
+        }
+        int length = equations.get(0).length();
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Unsupported equation length: " + equations.get(0));
+        }
+        long[] packed = new long[equations.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = pack(equations.get(i), length);
+        }
+        return new EquationDictionary(packed, length);
+    }
+
+    static long pack(String equation, int length) {
+        if (equation.length() != length) {
+            throw new IllegalArgumentException("Equation has the wrong length: " + equation);
+        }
+        long word = 0;
+        for (int i = 0; i < length; i++) {
+            int symbol = EquationAlphabet.indexOf(equation.charAt(i));
+            if (symbol < 0) {
+                throw new IllegalArgumentException("Equation uses an unknown symbol: " + equation);
+            }
+            word |= (long) symbol << (i << 2);
+        }
+        return word;
+    }
+
+    public void writeBinary(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + packed.length * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(length).putInt(packed.length);
+        buffer.asLongBuffer().put(packed);
+        buffer.rewind();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public int size() {
+        return packed.length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long packedAt(int index) {
+        return packed[index];
+    }
+
+    public char symbolAt(int index, int position) {
+        return EquationAlphabet.symbolAt((int) (packed[index] >>> (position << 2)) & 0xF);
+    }
+
+    public String get(int index) {
+        return unpack(packed[index], length);
+    }
+
+    static String unpack(long word, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = EquationAlphabet.symbolAt((int) (word >>> (i << 2)) & 0xF);
+        }
+        return new String(chars);
+    }
+
+    // Approximate heap held by this dictionary and its candidate index
+    public long footprintBytes() {
+        CandidateIndex index = candidateIndex;
+        return (long) packed.length * Long.BYTES + (index != null ? (long) index.bits().length * Long.BYTES : 0);
+    }
+
+    // True once candidateIndex() returns without building; lets the UI build it on another thread first
+    public boolean hasCandidateIndex() {
+        return candidateIndex != null;
+    }
+
+    // Built on first use and shared by every CandidateSet over this dictionary
+    public CandidateIndex candidateIndex() {
+        CandidateIndex index = candidateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = candidateIndex;
+                if (index == null) {
+                    candidateIndex = index = new CandidateIndex(this);
+                }
+            }
+        }
+        return index;
+    }
+
+    // Built on first use, so hints on this dictionary share the opening and pattern matrix, and follow the
+    // strategy tree if one was written for this dictionary
+    public NumberleSolver solver() {
+        NumberleSolver result = solver;
+        if (result == null) {
+            synchronized (this) {
+                result = solver;
+                if (result == null) {
+                    result = new NumberleSolver(view);
+                    result.useStrategyTree(StrategyTree.shared());
+                    solver = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Read-only List view that unpacks on access; the same instance is returned every time
+    public List<String> asList() {
+        return view;
+    }
+
+    private final class EquationList extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            return EquationDictionary.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return packed.length;
+        }
+    }
+
+    // Usage: java EquationDictionary <equations.txt> <equations.bin>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java EquationDictionary <equations.txt> <equations.bin>");
+            return;
+        }
+        EquationDictionary dictionary = load(Paths.get(args[0]));
+        dictionary.writeBinary(Paths.get(args[1]));
+        System.out.println(dictionary.size() + " equations written to " + args[1]);
+    }
+}
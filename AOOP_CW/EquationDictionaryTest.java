@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquationDictionaryTest {
+
+    @Test
+    void testEquationDictionaryBinaryRoundTrip(@TempDir Path dir) throws Exception {
+        List<String> source = List.of("1+2+3=6", "9-8*1=1", "4/2+0=2");
+        Path binary = dir.resolve("equations.bin");
+        EquationDictionary.of(source).writeBinary(binary);
+        EquationDictionary loaded = EquationDictionary.load(binary);
+        assertEquals(source, loaded.asList(), "Equations should survive packing and the binary format unchanged.");
+        assertEquals(7, loaded.length());
+    }
+
+    @Test
+    void testConfiguredDictionaryIsCheckedLikeAReload(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("equations.txt");
+        Files.write(file, List.of("1+2+3=6", "1+1+1=5"));
+        String previous = System.getProperty(EquationDictionary.PATH_PROPERTY);
+        System.setProperty(EquationDictionary.PATH_PROPERTY, file.toString());
+        try {
+            IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                    EquationDictionary::loadConfigured);
+            assertTrue(invalid.getMessage().contains("1+1+1=5"), invalid.getMessage());
+
+            Files.delete(file);
+            assertThrows(UncheckedIOException.class, EquationDictionary::loadConfigured,
+                    "A missing file must not fall back to a stand-in equation.");
+
+            Files.write(file, List.of("1+2+3=6", "9-8*1=1"));
+            assertEquals(List.of("1+2+3=6", "9-8*1=1"), EquationDictionary.loadConfigured().asList());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(EquationDictionary.PATH_PROPERTY);
+            } else {
+                System.setProperty(EquationDictionary.PATH_PROPERTY, previous);
+            }
+        }
+    }
+}
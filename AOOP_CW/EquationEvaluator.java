@@ -0,0 +1,111 @@
+// Single-pass checker for "expression=expression" using exact rational arithmetic on longs.
+// Allocates nothing, so it can run on every guess and over every candidate when building indexes.
+public final class EquationEvaluator {
+
+    private EquationEvaluator() {
+    }
+
+    // True if equation has exactly one '=', both sides are well formed and they are exactly equal.
+    // Unary operators, operands with leading zeros and division by zero are rejected.
+    public static boolean balances(CharSequence equation) {
+        int length = equation.length();
+        boolean leftSide = true;
+        long leftNum = 0, leftDen = 1;
+        long sumNum = 0, sumDen = 1;   // completed terms of the current side
+        long termNum = 0, termDen = 1; // product/quotient currently being built
+        long sign = 1;
+        char pendingOp = 0;            // '*' or '/' waiting for its right operand, 0 at the start of a term
+        int i = 0;
+
+        try {
+            while (true) {
+                if (i >= length || !isDigit(equation.charAt(i))) {
+                    return false; // every operator must be followed by an operand
+                }
+                if (equation.charAt(i) == '0' && i + 1 < length && isDigit(equation.charAt(i + 1))) {
+                    return false; // leading zero
+                }
+                long value = 0;
+                while (i < length && isDigit(equation.charAt(i))) {
+                    value = Math.addExact(Math.multiplyExact(value, 10), equation.charAt(i) - '0');
+                    i++;
+                }
+
+                if (pendingOp == 0) {
+                    termNum = value;
+                    termDen = 1;
+                } else if (pendingOp == '*') {
+                    long g = gcd(value, termDen);
+                    termNum = Math.multiplyExact(termNum, value / g);
+                    termDen /= g;
+                } else {
+                    if (value == 0) {
+                        return false;
+                    }
+                    long g = gcd(termNum, value);
+                    termNum /= g;
+                    termDen = Math.multiplyExact(termDen, value / g);
+                }
+
+                char op = i < length ? equation.charAt(i) : '=';
+                if (op != '*' && op != '/') {
+                    // The term is complete: sum += sign * term
+                    long num = Math.addExact(Math.multiplyExact(sumNum, termDen),
+                            Math.multiplyExact(sign * termNum, sumDen));
+                    long den = Math.multiplyExact(sumDen, termDen);
+                    long g = gcd(Math.abs(num), den);
+                    sumNum = num / g;
+                    sumDen = den / g;
+                }
+                if (i == length) {
+                    break;
+                }
+                i++;
+
+                switch (op) {
+                    case '*':
+                    case '/':
+                        pendingOp = op;
+                        break;
+                    case '+':
+                    case '-':
+                        sign = op == '+' ? 1 : -1;
+                        pendingOp = 0;
+                        break;
+                    case '=':
+                        if (!leftSide) {
+                            return false;
+                        }
+                        leftSide = false;
+                        leftNum = sumNum;
+                        leftDen = sumDen;
+                        sumNum = 0;
+                        sumDen = 1;
+                        sign = 1;
+                        pendingOp = 0;
+                        break;
+                    default:
+                        return false;
+                }
+            }
+        } catch (ArithmeticException overflow) {
+            return false;
+        }
+
+        // Both sides are kept in lowest terms with positive denominators, so equality is exact
+        return !leftSide && sumNum == leftNum && sumDen == leftDen;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+}
@@ -0,0 +1,203 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Enumerates every playable "expression=number" equation of a given length.
+//
+// Playable means: the left side uses at least one operator, operands and the result have no leading
+// zeros, no operand of '*' or '/' is 0 (no trivial x*0, 0*x or 0/x), every division is exact and the
+// result is a non-negative integer.
+// Every generated equation is also accepted by EquationEvaluator.
+//
+// The left side is built symbol by symbol with its integer value tracked incrementally. After each
+// '+' or '-' the sum of the finished terms is fixed. The terms still to come fit in the remaining
+// symbols, so together they add or take away less than 10^remaining, and prefixes that can no longer
+// reach a result of the right length are cut.
+// The search is split into one task per left-side length and two-symbol prefix and runs in parallel.
+public class EquationGenerator {
+    public static final int MIN_LENGTH = 3;
+    public static final int MAX_LENGTH = 12;
+
+    private static final long[] POWERS = new long[MAX_LENGTH + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    private EquationGenerator() {
+    }
+
+    // All playable equations of the given length, sorted
+    public static List<String> generate(int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Equation length must be between " + MIN_LENGTH + " and " + MAX_LENGTH);
+        }
+        // Task t covers left sides of length 1 + t / 150 starting with symbols (t / 15) % 10 and t % 15
+        int leftLengths = length - 2;
+        return IntStream.range(0, leftLengths * 150).parallel()
+                .mapToObj(task -> new Search(length, 1 + task / 150).run((task / 15) % 10, task % 15))
+                .flatMap(List::stream)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // Depth-first search over left sides of one length; instances are confined to one task
+    private static final class Search {
+        private final int leftLength;
+        private final int rightLength;
+        private final long low;
+        private final long high;
+        private final char[] equation;
+        private final List<String> found = new ArrayList<>();
+
+        Search(int length, int leftLength) {
+            this.leftLength = leftLength;
+            this.rightLength = length - 1 - leftLength;
+            this.low = rightLength == 1 ? 0 : POWERS[rightLength - 1];
+            this.high = POWERS[rightLength] - 1;
+            this.equation = new char[length];
+            equation[leftLength] = '=';
+        }
+
+        List<String> run(int firstDigit, int secondSymbol) {
+            if (firstDigit == 0 && leftLength > 1 && secondSymbol < 10) {
+                return found; // leading zero
+            }
+            if (secondSymbol == EquationAlphabet.SIZE - 1) {
+                return found; // never '=' on the left
+            }
+            equation[0] = (char) ('0' + firstDigit);
+            if (leftLength == 1) {
+                if (secondSymbol == 0) { // one-symbol left sides are covered once, not per second symbol
+                    extend(1, 0, 1, 1, (char) 0, firstDigit);
+                }
+                return found;
+            }
+            // Replay the first symbol so the second goes through the same rules as every other
+            step(1, 0, 1, 1, (char) 0, firstDigit, EquationAlphabet.symbolAt(secondSymbol));
+            return found;
+        }
+
+        // sum: finished terms; sign: of the current term; term: product so far; op: '*', '/' or 0;
+        // operand: number being typed, or -1 before its first digit
+        private void extend(int position, long sum, int sign, long term, char op, long operand) {
+            if (position == leftLength) {
+                finish(sum, sign, term, op, operand);
+                return;
+            }
+            for (int symbol = 0; symbol < EquationAlphabet.SIZE - 1; symbol++) { // never '=' on the left
+                step(position, sum, sign, term, op, operand, EquationAlphabet.symbolAt(symbol));
+            }
+        }
+
+        private void step(int position, long sum, int sign, long term, char op, long operand, char c) {
+            int remaining = leftLength - position - 1; // symbols left after c
+            equation[position] = c;
+            if (c >= '0' && c <= '9') {
+                if (operand == 0) {
+                    return; // leading zero
+                }
+                int digit = c - '0';
+                if (operand < 0 && digit == 0 && op != 0) {
+                    return; // x*0 or x/0
+                }
+                extend(position + 1, sum, sign, term, op, operand < 0 ? digit : operand * 10 + digit);
+                return;
+            }
+            if (operand < 0 || remaining < 1) {
+                return; // an operator needs an operand on both sides
+            }
+            long value = apply(term, op, operand);
+            if (value < 0) {
+                return; // inexact division
+            }
+            if (c == '*' || c == '/') {
+                if (operand == 0) {
+                    return; // 0*x or 0/x
+                }
+                extend(position + 1, sum, sign, value, c, -1);
+                return;
+            }
+            long finished = sum + sign * value;
+            // A later '-' can take the rest below zero and a '+' after it raise it again, so the rest is
+            // only bounded in size: |rest| < 10^remaining
+            long reach = POWERS[remaining] - 1;
+            if (finished + reach < low || finished - reach > high) {
+                return;
+            }
+            extend(position + 1, finished, c == '+' ? 1 : -1, 1, (char) 0, -1);
+        }
+
+        private void finish(long sum, int sign, long term, char op, long operand) {
+            if (operand < 0) {
+                return;
+            }
+            long value = apply(term, op, operand);
+            if (value < 0) {
+                return;
+            }
+            long result = sum + sign * value;
+            if (result < low || result > high || isSingleNumber()) {
+                return;
+            }
+            for (int i = equation.length - 1; i > leftLength; i--) {
+                equation[i] = (char) ('0' + result % 10);
+                result /= 10;
+            }
+            String text = new String(equation);
+            assert EquationEvaluator.balances(text) : "Generated equation must balance: " + text;
+            found.add(text);
+        }
+
+        // "12=12" is not a puzzle
+        private boolean isSingleNumber() {
+            for (int i = 0; i < leftLength; i++) {
+                if (equation[i] < '0' || equation[i] > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Non-negative term value, or -1 if a division is not exact
+        private static long apply(long term, char op, long operand) {
+            if (op == 0) {
+                return operand;
+            }
+            if (op == '*') {
+                return term * operand;
+            }
+            return term % operand == 0 ? term / operand : -1;
+        }
+    }
+
+    // Usage: java EquationGenerator <length> [output]; a .txt output is written as text, anything else
+    // in the binary EquationDictionary format
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java EquationGenerator <length> [output]");
+            return;
+        }
+        int length = Integer.parseInt(args[0]);
+        Path output = Paths.get(args.length > 1 ? args[1] : "equations-" + length + ".bin");
+
+        long start = System.nanoTime();
+        List<String> equations = generate(length);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        if (output.toString().endsWith(".txt")) {
+            Files.write(output, equations);
+        } else {
+            EquationDictionary.of(equations).writeBinary(output);
+        }
+        System.out.println(equations.size() + " equations of length " + length + " generated in "
+                + elapsed + " ms and written to " + output);
+    }
+}
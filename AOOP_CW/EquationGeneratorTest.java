@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquationGeneratorTest {
+    private static final String LEFT_SYMBOLS = "0123456789+-*/";
+
+    @Test
+    void testGenerateMatchesBruteForce() {
+        for (int length = 5; length <= 7; length++) {
+            List<String> expected = bruteForce(length);
+            assertEquals(expected, EquationGenerator.generate(length), "Length " + length + " should match the brute-force filter.");
+        }
+    }
+
+    @Test
+    void testLaterMinusTermsAreNotPruned() {
+        assertTrue(EquationGenerator.generate(8).contains("10+1-9=2"), "A '-' after a '+' can bring the left side back down.");
+    }
+
+    // Every left side over digits and operators, kept when its integer value is a result of the right length
+    private static List<String> bruteForce(int length) {
+        List<String> equations = new ArrayList<>();
+        for (int leftLength = 1; leftLength <= length - 2; leftLength++) {
+            int rightLength = length - 1 - leftLength;
+            char[] left = new char[leftLength];
+            int combinations = (int) Math.pow(LEFT_SYMBOLS.length(), leftLength);
+            for (int code = 0; code < combinations; code++) {
+                int rest = code;
+                for (int i = leftLength - 1; i >= 0; i--) {
+                    left[i] = LEFT_SYMBOLS.charAt(rest % LEFT_SYMBOLS.length());
+                    rest /= LEFT_SYMBOLS.length();
+                }
+                long value = playableValue(new String(left));
+                if (value >= 0 && Long.toString(value).length() == rightLength) {
+                    String equation = new String(left) + "=" + value;
+                    assertTrue(EquationEvaluator.balances(equation), "Playable equations must balance: " + equation);
+                    equations.add(equation);
+                }
+            }
+        }
+        Collections.sort(equations);
+        return equations;
+    }
+
+    // Value of a playable left side, or -1: at least one operator, no leading zeros, no 0 next to '*' or
+    // '/', every division exact and evaluated left to right within its term
+    private static long playableValue(String left) {
+        List<Long> numbers = new ArrayList<>();
+        List<Character> operators = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= left.length(); i++) {
+            if (i < left.length() && Character.isDigit(left.charAt(i))) {
+                continue;
+            }
+            String number = left.substring(start, i);
+            if (number.isEmpty() || number.length() > 1 && number.charAt(0) == '0') {
+                return -1;
+            }
+            numbers.add(Long.parseLong(number));
+            if (i < left.length()) {
+                operators.add(left.charAt(i));
+            }
+            start = i + 1;
+        }
+        if (operators.isEmpty()) {
+            return -1;
+        }
+        long sum = 0;
+        int sign = 1;
+        long term = numbers.get(0);
+        for (int i = 0; i < operators.size(); i++) {
+            char op = operators.get(i);
+            long next = numbers.get(i + 1);
+            if (op == '*' || op == '/') {
+                if (term == 0 || next == 0 || op == '/' && term % next != 0) {
+                    return -1;
+                }
+                term = op == '*' ? term * next : term / next;
+            } else {
+                sum += sign * term;
+                sign = op == '+' ? 1 : -1;
+                term = next;
+            }
+        }
+        return sum + sign * term;
+    }
+}
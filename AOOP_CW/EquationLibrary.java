@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// One EquationDictionary per equation length, built the first time a game of that length is played and
+// shared by every model and session after that. The configured dictionary (EquationDictionary.shared())
+// serves its own length; other lengths come from equations-<n>.bin or equations-<n>.txt in
+// -Dnumberle.equationsDir (default .), or are generated when no such file exists.
+//
+// The cache keeps at most -Dnumberle.library.maxBytes of dictionaries and their candidate indexes and
+// drops the least recently used lengths beyond that. Games still playing a dropped length keep their own
+// reference, so only lengths somebody is using stay in memory.
+public final class EquationLibrary {
+    public static final String DIRECTORY_PROPERTY = "numberle.equationsDir";
+    public static final String MAX_BYTES_PROPERTY = "numberle.library.maxBytes";
+    public static final int MIN_LENGTH = 5;
+    public static final int MAX_LENGTH = 12;
+    public static final int DEFAULT_LENGTH = 7;
+    // Longer dictionaries take minutes and gigabytes to enumerate; pregenerate them with EquationGenerator
+    static final int GENERATED_MAX_LENGTH = 10;
+    // Longest length the GUI and CLI offer: a hint on the length-9 dictionary takes a few hundred
+    // milliseconds, while a solver for length 10 would unpack millions of equations
+    public static final int INTERACTIVE_MAX_LENGTH = 9;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, CompletableFuture<EquationDictionary>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    EquationLibrary(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    private static final class Shared {
+        static final EquationLibrary INSTANCE = new EquationLibrary(
+                Paths.get(System.getProperty(DIRECTORY_PROPERTY, ".")),
+                Long.getLong(MAX_BYTES_PROPERTY, 256L << 20));
+    }
+
+    public static EquationLibrary shared() {
+        return Shared.INSTANCE;
+    }
+
+    public static boolean isSupported(int length) {
+        return length >= MIN_LENGTH && length <= MAX_LENGTH;
+    }
+
+    // True if a dictionary of this length can be generated or has a file in the directory
+    public boolean isAvailable(int length) {
+        if (!isSupported(length)) {
+            return false;
+        }
+        return length <= GENERATED_MAX_LENGTH || file(length) != null || EquationDictionary.shared().length() == length;
+    }
+
+    // Lengths players can pick, shortest first
+    public List<Integer> interactiveLengths() {
+        List<Integer> lengths = new ArrayList<>();
+        for (int length = MIN_LENGTH; length <= Math.min(MAX_LENGTH, INTERACTIVE_MAX_LENGTH); length++) {
+            if (isAvailable(length)) {
+                lengths.add(length);
+            }
+        }
+        return lengths;
+    }
+
+    // Blocks while the dictionary is built on first use
+    public EquationDictionary get(int length) {
+        try {
+            return load(length).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Completes once the dictionary of this length is ready; concurrent callers share one build
+    public CompletableFuture<EquationDictionary> load(int length) {
+        if (!isSupported(length)) {
+            throw new IllegalArgumentException("Equation length must be between " + MIN_LENGTH + " and " + MAX_LENGTH);
+        }
+        CompletableFuture<EquationDictionary> future;
+        boolean created = false;
+        synchronized (cache) {
+            future = cache.get(length);
+            if (future == null || future.isCompletedExceptionally()) {
+                future = new CompletableFuture<>();
+                cache.put(length, future);
+                created = true;
+            }
+        }
+        if (created) {
+            CompletableFuture<EquationDictionary> building = future;
+            CompletableFuture.supplyAsync(() -> build(length)).whenComplete((dictionary, error) -> {
+                if (error != null) {
+                    building.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                } else {
+                    // Trim first, so callers never see a cache that is still over budget
+                    trim(length, dictionary.footprintBytes());
+                    building.complete(dictionary);
+                }
+            });
+        } else {
+            trim(length, 0); // candidate indexes built since the last load count against the budget too
+        }
+        return future;
+    }
+
+    // Lengths currently cached, least recently used first
+    @Override
+    public String toString() {
+        synchronized (cache) {
+            return "EquationLibrary" + cache.keySet();
+        }
+    }
+
+    private EquationDictionary build(int length) {
+        EquationDictionary configured = EquationDictionary.shared();
+        if (configured.length() == length) {
+            return configured;
+        }
+        Path file = file(length);
+        if (file != null) {
+            try {
+                EquationDictionary dictionary = EquationDictionary.load(file);
+                if (dictionary.length() != length) {
+                    throw new IOException(file + " holds equations of length " + dictionary.length());
+                }
+                return dictionary;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (length > GENERATED_MAX_LENGTH) {
+            throw new IllegalArgumentException("No equations-" + length + ".bin in " + directory.toAbsolutePath()
+                    + "; generate it with: java EquationGenerator " + length);
+        }
+        long start = System.nanoTime();
+        EquationDictionary dictionary = EquationDictionary.of(EquationGenerator.generate(length));
+        NumberleMetrics.shared().dictionaryLoadTime.record(System.nanoTime() - start);
+        return dictionary;
+    }
+
+    // equations-<n>.bin, else equations-<n>.txt, in the directory; null if neither exists
+    private Path file(int length) {
+        for (String name : new String[]{"equations-" + length + ".bin", "equations-" + length + ".txt"}) {
+            Path file = directory.resolve(name);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    // Drops least recently used lengths until the finished ones and the one about to be handed out fit the
+    // budget, never the one just built
+    private void trim(int keep, long building) {
+        synchronized (cache) {
+            long total = building;
+            for (CompletableFuture<EquationDictionary> future : cache.values()) {
+                total += footprint(future);
+            }
+            Iterator<Map.Entry<Integer, CompletableFuture<EquationDictionary>>> entries = cache.entrySet().iterator();
+            while (total > maxBytes && entries.hasNext()) {
+                Map.Entry<Integer, CompletableFuture<EquationDictionary>> entry = entries.next();
+                if (entry.getKey() != keep && entry.getValue().isDone()) {
+                    total -= footprint(entry.getValue());
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    private static long footprint(CompletableFuture<EquationDictionary> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join().footprintBytes() : 0;
+    }
+}
@@ -0,0 +1,32 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquationLibraryTest {
+
+    @Test
+    void testOnlyPlayableLengthsAreOffered(@TempDir Path dir) throws Exception {
+        EquationLibrary library = new EquationLibrary(dir, 1L << 20);
+        assertTrue(library.isAvailable(EquationLibrary.GENERATED_MAX_LENGTH), "Short lengths can be generated.");
+        assertFalse(library.isAvailable(11), "Long lengths need a pregenerated file.");
+        Files.write(dir.resolve("equations-11.txt"), List.of("10+20-3=27"));
+        assertTrue(library.isAvailable(11), "A file in the directory makes a length available.");
+        assertFalse(library.isAvailable(EquationLibrary.MAX_LENGTH + 1));
+        assertEquals(List.of(5, 6, 7, 8, 9), library.interactiveLengths(), "Players are offered lengths hints can keep up with.");
+    }
+
+    @Test
+    void testEquationLibraryEvictsLeastRecentlyUsed(@TempDir Path dir) throws Exception {
+        Files.write(dir.resolve("equations-6.txt"), List.of("10-4=6", "12/4=3"));
+        EquationLibrary library = new EquationLibrary(dir, 1); // every dictionary is over budget
+        EquationDictionary six = library.get(6);
+        assertEquals(List.of("10-4=6", "12/4=3"), six.asList(), "Files in the directory take precedence over generation.");
+        assertSame(six, library.get(6), "A cached length is built once.");
+        library.get(5);
+        assertEquals("EquationLibrary[5]", library.toString(), "Older lengths are dropped once over budget.");
+        assertThrows(IllegalArgumentException.class, () -> library.get(13));
+    }
+}
@@ -0,0 +1,58 @@
+// Feedback for a whole guess packed into one int, 2 bits per position (position 0 in the lowest bits).
+// State values are ordered by priority so the best known state of a key is a plain max.
+public final class Feedback {
+    public static final int EMPTY = 0;   // no information
+    public static final int ABSENT = 1;  // gray: not in the equation (or no unmatched copies left)
+    public static final int PRESENT = 2; // orange: in the equation, wrong position
+    public static final int CORRECT = 3; // green: right symbol, right position
+
+    public static final int MAX_LENGTH = 16;
+
+    private Feedback() {
+    }
+
+    // Scores guess against target. counts is caller-owned scratch space of at least EquationAlphabet.SIZE
+    // entries, so scoring allocates nothing. Both strings must use only alphabet symbols.
+    public static int score(CharSequence guess, CharSequence target, int[] counts) {
+        int length = target.length();
+        assert guess.length() == length && length <= MAX_LENGTH : "Guess and target must have the same length";
+        java.util.Arrays.fill(counts, 0, EquationAlphabet.SIZE, 0);
+
+        // First mark all the correct symbols and count the target symbols left unmatched
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            char targetChar = target.charAt(i);
+            if (guess.charAt(i) == targetChar) {
+                code |= CORRECT << (i << 1);
+            } else {
+                counts[EquationAlphabet.indexOf(targetChar)]++;
+            }
+        }
+
+        // Then hand out the unmatched copies to misplaced symbols from left to right
+        for (int i = 0; i < length; i++) {
+            if (stateAt(code, i) == EMPTY) {
+                int symbol = EquationAlphabet.indexOf(guess.charAt(i));
+                if (counts[symbol] > 0) {
+                    counts[symbol]--;
+                    code |= PRESENT << (i << 1);
+                } else {
+                    code |= ABSENT << (i << 1);
+                }
+            }
+        }
+        return code;
+    }
+
+    public static int stateAt(int code, int position) {
+        return (code >>> (position << 1)) & 3;
+    }
+
+    public static int allCorrect(int length) {
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            code |= CORRECT << (i << 1);
+        }
+        return code;
+    }
+}
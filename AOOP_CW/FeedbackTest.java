@@ -0,0 +1,16 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedbackTest {
+
+    @Test
+    void testFeedbackScoring() {
+        int[] counts = new int[EquationAlphabet.SIZE];
+        GuessResult result = new GuessResult("1+1+4=6", Feedback.score("1+1+4=6", "1+2+3=6", counts));
+        assertEquals(Feedback.CORRECT, result.getState(0));
+        assertEquals(Feedback.ABSENT, result.getState(2), "A repeated symbol with no unmatched copy left should be absent.");
+        assertEquals(Feedback.ABSENT, result.getState(4));
+        assertEquals(Feedback.CORRECT, result.getKeyState('1'), "A key should report its best state in the guess.");
+        assertEquals(Feedback.EMPTY, result.getKeyState('9'), "Unused keys should report no information.");
+    }
+}
@@ -1,15 +1,86 @@
+import javax.swing.SwingUtilities;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+
 public class GUIApp {
-    public static void main(String[] args) {
+    // Prints the startup times and exits once the game is playable; used by startup/measure.sh
+    public static final String MEASURE_PROPERTY = "numberle.startup.measure";
+
+    // Both only touched on the EDT
+    private static long firstFrameMillis = -1;
+    private static long readyMillis = -1;
 
+    public static void main(String[] args) {
+        // The dictionary starts loading before Swing initializes, and the window does not wait for it
+        CompletableFuture<EquationDictionary> dictionary = loadInBackground();
         javax.swing.SwingUtilities.invokeLater(
-                GUIApp::createAndShowGUI
+                () -> createAndShowGUI(dictionary)
         );
     }
 
     public static void createAndShowGUI() {
-        NumberleModel model = new NumberleModel();
-        NumberleController controller = new NumberleController(model);
-        NumberleView view = new NumberleView(model, controller);
+        createAndShowGUI(loadInBackground());
+    }
+
+    // Everything slow that has to happen before the first game: reading the dictionary (which also
+    // registers the metrics MXBean) and opening the journal
+    private static CompletableFuture<EquationDictionary> loadInBackground() {
+        return CompletableFuture.supplyAsync(() -> {
+            GameJournal.shared();
+            EquationDictionary dictionary = EquationDictionary.shared();
+            DictionaryWatcher.shared();
+            return dictionary;
+        });
+    }
+
+    static void createAndShowGUI(CompletableFuture<EquationDictionary> dictionary) {
+        NumberleView view = new NumberleView(); // visible at once, with a progress bar and input disabled
+        view.getFrame().addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the first paint of the window
+                SwingUtilities.invokeLater(() -> {
+                    firstFrameMillis = millisSinceJvmStart();
+                    reportStartup();
+                });
+            }
+        });
+        dictionary.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                // Unwraps the CompletionException and, on first use, the holder's ExceptionInInitializerError
+                Throwable cause = error;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                view.showLoadFailure(cause);
+                return;
+            }
+            NumberleModel model = new NumberleModel(loaded);
+            NumberleController controller = new NumberleController(model);
+            if (GameJournal.shared() != null) {
+                GameJournal.shared().record(model); // before the view starts the first game
+            }
+            view.attach(model, controller);
+            SwingUtilities.invokeLater(() -> { // after the repaint that enables input
+                readyMillis = millisSinceJvmStart();
+                reportStartup();
+            });
+        }));
+    }
+
+    private static void reportStartup() {
+        if (Boolean.getBoolean(MEASURE_PROPERTY) && firstFrameMillis >= 0 && readyMillis >= 0) {
+            System.out.println("startup firstFrameMillis=" + firstFrameMillis + " readyMillis=" + readyMillis);
+            System.exit(0);
+        }
+    }
+
+    // The JVM's own start time: the process start time derives from the boot time in whole seconds, which
+    // can be hundreds of milliseconds off, notably in virtual machines
+    private static long millisSinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+// Typed notifications published by NumberleModel; each event calls the matching GameListener method
+public abstract class GameEvent {
+
+    GameEvent() {
+    }
+
+    abstract void dispatchTo(GameListener listener);
+
+    // A new game began
+    public static final class GameStarted extends GameEvent {
+        private final int remainingAttempts;
+
+        GameStarted(int remainingAttempts) {
+            this.remainingAttempts = remainingAttempts;
+        }
+
+        public int getRemainingAttempts() {
+            return remainingAttempts;
+        }
+
+        @Override
+        void dispatchTo(GameListener listener) {
+            listener.gameStarted(this);
+        }
+    }
+
+    // A valid guess was scored and used up an attempt
+    public static final class GuessAccepted extends GameEvent {
+        private final GuessResult result;
+        private final int remainingAttempts;
+
+        GuessAccepted(GuessResult result, int remainingAttempts) {
+            this.result = result;
+            this.remainingAttempts = remainingAttempts;
+        }
+
+        public GuessResult getResult() {
+            return result;
+        }
+
+        public int getRemainingAttempts() {
+            return remainingAttempts;
+        }
+
+        @Override
+        void dispatchTo(GameListener listener) {
+            listener.guessAccepted(this);
+        }
+    }
+
+    // A guess was refused without using an attempt
+    public static final class GuessRejected extends GameEvent {
+        private final String input;
+        private final String reason;
+
+        GuessRejected(String input, String reason) {
+            this.input = input;
+            this.reason = reason;
+        }
+
+        public String getInput() {
+            return input;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        void dispatchTo(GameListener listener) {
+            listener.guessRejected(this);
+        }
+    }
+
+    // The game was won or ran out of attempts
+    public static final class GameOver extends GameEvent {
+        private final boolean won;
+        private final String target;
+
+        GameOver(boolean won, String target) {
+            this.won = won;
+            this.target = target;
+        }
+
+        public boolean isWon() {
+            return won;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        @Override
+        void dispatchTo(GameListener listener) {
+            listener.gameOver(this);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free replacement for java.util.Observable. Listeners live in a copy-on-write array swapped by CAS.
+// Synchronous listeners run on the publishing thread. Asynchronous listeners get events queued and drained
+// by one task on their executor, so a burst becomes a single batch (one invokeLater for the Swing EDT)
+// and publishing never waits for them. Publishing with no listeners is a single volatile read.
+//
+// A slow asynchronous listener sees bursts coalesced: a GameStarted discards everything still queued from
+// the game before it, and of several queued rejections only the latest is delivered. That keeps the queue
+// bounded: one game's accepted guesses and its end, plus at most MAX_PENDING rejections.
+public final class GameEventDispatcher {
+    private static final Registration[] NONE = new Registration[0];
+    // Rejections beyond this are dropped until the listener catches up; nothing else is ever dropped
+    static final int MAX_PENDING = 64;
+
+    private final AtomicReference<Registration[]> registrations = new AtomicReference<>(NONE);
+
+    // Called on the publishing thread; keep it cheap
+    public void addListener(GameListener listener) {
+        add(new Registration(listener, null));
+    }
+
+    // Called on executor, in publish order, with bursts delivered in one task
+    public void addListener(GameListener listener, Executor executor) {
+        add(new Registration(listener, executor));
+    }
+
+    public void removeListener(GameListener listener) {
+        Registration[] current;
+        Registration[] next;
+        do {
+            current = registrations.get();
+            int kept = 0;
+            next = new Registration[current.length];
+            for (Registration registration : current) {
+                if (registration.listener != listener) {
+                    next[kept++] = registration;
+                }
+            }
+            next = kept == 0 ? NONE : Arrays.copyOf(next, kept);
+        } while (!registrations.compareAndSet(current, next));
+    }
+
+    // Lets publishers skip building events nobody will see
+    public boolean hasListeners() {
+        return registrations.get().length != 0;
+    }
+
+    public void publish(GameEvent event) {
+        for (Registration registration : registrations.get()) {
+            registration.deliver(event);
+        }
+    }
+
+    private void add(Registration registration) {
+        Registration[] current;
+        Registration[] next;
+        do {
+            current = registrations.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = registration;
+        } while (!registrations.compareAndSet(current, next));
+    }
+
+    private static final class Registration {
+        final GameListener listener;
+        final Executor executor;
+        final ConcurrentLinkedQueue<GameEvent> pending;
+        final AtomicInteger pendingCount;
+        final AtomicBoolean scheduled;
+
+        Registration(GameListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+            this.pending = executor == null ? null : new ConcurrentLinkedQueue<>();
+            this.pendingCount = executor == null ? null : new AtomicInteger();
+            this.scheduled = executor == null ? null : new AtomicBoolean();
+        }
+
+        void deliver(GameEvent event) {
+            if (executor == null) {
+                invoke(event);
+                return;
+            }
+            if (event instanceof GameEvent.GameStarted) {
+                while (pending.poll() != null) { // the previous game's events are obsolete
+                    pendingCount.decrementAndGet();
+                }
+            } else if (event instanceof GameEvent.GuessRejected && pendingCount.get() >= MAX_PENDING) {
+                return;
+            }
+            pending.add(event);
+            pendingCount.incrementAndGet();
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // At most one drain runs at a time, so events arrive in order even on a thread pool
+        private void drain() {
+            List<GameEvent> batch = new ArrayList<>();
+            do {
+                GameEvent event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    batch.add(event);
+                }
+                invokeCoalesced(batch);
+                batch.clear();
+                scheduled.set(false);
+            } while (!pending.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        // Skips what a later event in the batch makes obsolete: anything before the last GameStarted and
+        // every rejection but the last
+        private void invokeCoalesced(List<GameEvent> batch) {
+            int start = 0;
+            int lastRejection = -1;
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i) instanceof GameEvent.GameStarted) {
+                    start = i;
+                } else if (batch.get(i) instanceof GameEvent.GuessRejected) {
+                    lastRejection = i;
+                }
+            }
+            for (int i = start; i < batch.size(); i++) {
+                if (!(batch.get(i) instanceof GameEvent.GuessRejected) || i == lastRejection) {
+                    invoke(batch.get(i));
+                }
+            }
+        }
+
+        private void invoke(GameEvent event) {
+            try {
+                event.dispatchTo(listener);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // one faulty listener must not break the model or the others
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventDispatcherTest {
+
+    // Records every callback as a short string
+    private static final class Recorder implements GameListener {
+        final List<String> seen = new ArrayList<>();
+
+        @Override
+        public void gameStarted(GameEvent.GameStarted event) {
+            seen.add("started");
+        }
+
+        @Override
+        public void guessAccepted(GameEvent.GuessAccepted event) {
+            seen.add("accepted " + event.getResult().getGuess());
+        }
+
+        @Override
+        public void guessRejected(GameEvent.GuessRejected event) {
+            seen.add("rejected " + event.getInput());
+        }
+
+        @Override
+        public void gameOver(GameEvent.GameOver event) {
+            seen.add("over");
+        }
+    }
+
+    private static GameEvent.GuessAccepted accepted(String guess) {
+        return new GameEvent.GuessAccepted(new GuessResult(guess, 0), 5);
+    }
+
+    @Test
+    void testSynchronousListenersSeeEveryEvent() {
+        GameEventDispatcher dispatcher = new GameEventDispatcher();
+        Recorder recorder = new Recorder();
+        dispatcher.addListener(recorder);
+        dispatcher.publish(new GameEvent.GuessRejected("a", "bad"));
+        dispatcher.publish(new GameEvent.GuessRejected("b", "bad"));
+        dispatcher.publish(new GameEvent.GameStarted(6));
+        assertEquals(List.of("rejected a", "rejected b", "started"), recorder.seen);
+    }
+
+    @Test
+    void testSlowListenerGetsCoalescedBatches() {
+        GameEventDispatcher dispatcher = new GameEventDispatcher();
+        Recorder recorder = new Recorder();
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        dispatcher.addListener(recorder, tasks::add);
+
+        dispatcher.publish(new GameEvent.GameStarted(6));
+        dispatcher.publish(accepted("1+2+3=6"));
+        dispatcher.publish(new GameEvent.GameOver(true, "1+2+3=6"));
+        dispatcher.publish(new GameEvent.GameStarted(6)); // obsoletes the finished game
+        dispatcher.publish(new GameEvent.GuessRejected("a", "bad"));
+        dispatcher.publish(accepted("9-8*1=1"));
+        dispatcher.publish(new GameEvent.GuessRejected("b", "bad"));
+        assertEquals(1, tasks.size(), "A burst is drained by one task.");
+        tasks.poll().run();
+        assertEquals(List.of("started", "accepted 9-8*1=1", "rejected b"), recorder.seen);
+
+        for (int i = 0; i < 10 * GameEventDispatcher.MAX_PENDING; i++) {
+            dispatcher.publish(new GameEvent.GuessRejected("r" + i, "bad"));
+        }
+        dispatcher.publish(accepted("4/2+0=2"));
+        tasks.poll().run();
+        assertTrue(tasks.isEmpty());
+        assertEquals(List.of("started", "accepted 9-8*1=1", "rejected b",
+                "rejected r" + (GameEventDispatcher.MAX_PENDING - 1), "accepted 4/2+0=2"), recorder.seen,
+                "Rejections past the bound are dropped, accepted guesses never are.");
+    }
+}
@@ -0,0 +1,394 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Append-only record of every game played, written into memory-mapped segment files
+// (journal-000000.seg, journal-000001.seg, ...). A finished game is copied into the mapping with a few
+// puts; the OS writes the pages back and a background thread forces them to disk every FLUSH_MILLIS.
+//
+// Segment: MAGIC, VERSION, sequence number, reserved, then records until the first zero word.
+// Record:  header (marker, flags, equation length, guess count), target index, start time in millis,
+//          packed target, then per guess the packed equation, its feedback code and the millis since
+//          the start. The target is kept itself, so games of any length and from before a dictionary
+//          reload stay attributed to the right equation.
+// The header is written last, so a record cut short by a crash reads as the end of the segment.
+//
+// A writer holds a lock on journal.lock in the directory, so a second JVM pointed at the same
+// directory fails to open it instead of overwriting the segments.
+public final class GameJournal implements Closeable {
+    public static final String DIRECTORY_PROPERTY = "numberle.journal";
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    private static final int MAGIC = 0x4E4A524E; // "NJRN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 24;
+    private static final int GUESS_BYTES = 16;
+    private static final int MARKER = 0xA5;
+    private static final int WON = 1;
+    private static final int FINISHED = 2;
+    private static final long FLUSH_MILLIS = 500;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FileChannel lockFile;
+    private final ScheduledExecutorService flusher;
+    private MappedByteBuffer segment;
+    private int sequence;
+    private int position;
+    private boolean dirty;
+    private boolean closed;
+
+    private GameJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        lockFile = lock(directory);
+        try {
+            List<Path> segments = segments(directory);
+            if (segments.isEmpty()) {
+                openSegment(0);
+            } else {
+                // Carry on after the last complete record of the newest segment
+                Path last = segments.get(segments.size() - 1);
+                segment = map(last, FileChannel.MapMode.READ_WRITE, segmentBytes);
+                if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+                    throw new IOException("Not a game journal segment: " + last);
+                }
+                sequence = segment.getInt(8);
+                position = HEADER_BYTES;
+                while (position + RECORD_BYTES <= segment.limit() && (segment.getInt(position) >>> 24) == MARKER) {
+                    position += recordBytes(segment.getInt(position) & 0xFF);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            lockFile.close();
+            throw e;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "numberle-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static GameJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    // Fails if another writer, in this or another JVM, has the directory open
+    static GameJournal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < HEADER_BYTES + recordBytes(INumberleModel.MAX_ATTEMPTS)) {
+            throw new IllegalArgumentException("Segment too small: " + segmentBytes);
+        }
+        return new GameJournal(directory, segmentBytes);
+    }
+
+    // Opened on first use in -Dnumberle.journal (default ./journal); null when set to "off" or unusable
+    private static final class Shared {
+        static final GameJournal INSTANCE = openConfigured();
+    }
+
+    public static GameJournal shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static GameJournal openConfigured() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, "journal");
+        if (directory.equalsIgnoreCase("off")) {
+            return null;
+        }
+        try {
+            GameJournal journal = open(Paths.get(directory));
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "numberle-journal-close"));
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Game journal disabled: " + e);
+            return null;
+        }
+    }
+
+    // Starts journaling the games of a model; events are taken synchronously on the model's thread
+    public Recorder record(NumberleModel model) {
+        Recorder recorder = new Recorder(model);
+        model.addListener(recorder);
+        return recorder;
+    }
+
+    public synchronized void append(int targetIndex, long target, int length, long startMillis, boolean finished,
+                                    boolean won, long[] guesses, int[] feedback, int[] elapsedMillis, int count) {
+        assert count >= 0 && count <= INumberleModel.MAX_ATTEMPTS : "Guess count out of range";
+        if (closed) {
+            return;
+        }
+        int bytes = recordBytes(count);
+        if (position + bytes > segmentBytes) {
+            force();
+            try {
+                openSegment(sequence + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int at = position + RECORD_BYTES;
+        for (int i = 0; i < count; i++, at += GUESS_BYTES) {
+            segment.putLong(at, guesses[i]);
+            segment.putInt(at + 8, feedback[i]);
+            segment.putInt(at + 12, elapsedMillis[i]);
+        }
+        segment.putInt(position + 4, targetIndex);
+        segment.putLong(position + 8, startMillis);
+        segment.putLong(position + 16, target);
+        int flags = (finished ? FINISHED : 0) | (won ? WON : 0);
+        segment.putInt(position, MARKER << 24 | flags << 16 | length << 8 | count);
+        position += bytes;
+        dirty = true;
+    }
+
+    public synchronized void flush() {
+        if (dirty && !closed) {
+            force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            force();
+            closed = true;
+            flusher.shutdown();
+            try {
+                lockFile.close(); // releases the lock
+            } catch (IOException e) {
+                System.err.println("Game journal lock not released: " + e);
+            }
+        }
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // held by this JVM
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("Game journal " + directory + " is already in use");
+        }
+        return channel;
+    }
+
+    private void force() {
+        segment.force();
+        dirty = false;
+    }
+
+    private void openSegment(int next) throws IOException {
+        segment = map(directory.resolve(String.format("journal-%06d.seg", next)), FileChannel.MapMode.READ_WRITE, segmentBytes);
+        segment.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, next).putInt(12, 0);
+        sequence = next;
+        position = HEADER_BYTES;
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, size < 0 ? channel.size() : size);
+        }
+    }
+
+    private static int recordBytes(int count) {
+        return RECORD_BYTES + count * GUESS_BYTES;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "journal-*.seg")) {
+            stream.forEach(segments::add);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    public interface Visitor {
+        void game(Game game);
+    }
+
+    // Streams every recorded game in order, one segment mapped at a time. The Game handed to the
+    // visitor is reused for the next record, so copy anything that has to outlive the call.
+    public static long replay(Path directory, Visitor visitor) throws IOException {
+        long games = 0;
+        Game game = new Game();
+        for (Path file : segments(directory)) {
+            MappedByteBuffer buffer = map(file, FileChannel.MapMode.READ_ONLY, -1);
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a game journal segment: " + file);
+            }
+            int at = HEADER_BYTES;
+            while (at + recordBytes(0) <= buffer.limit()) {
+                int header = buffer.getInt(at);
+                if (header >>> 24 != MARKER || at + recordBytes(header & 0xFF) > buffer.limit()) {
+                    break;
+                }
+                game.buffer = buffer;
+                game.offset = at;
+                game.header = header;
+                visitor.game(game);
+                games++;
+                at += recordBytes(header & 0xFF);
+            }
+        }
+        return games;
+    }
+
+    // View of one record inside a mapped segment
+    public static final class Game {
+        private MappedByteBuffer buffer;
+        private int offset;
+        private int header;
+
+        // Index in the dictionary the game was played on, which may since have been reloaded
+        public int getTargetIndex() {
+            return buffer.getInt(offset + 4);
+        }
+
+        public String getTarget() {
+            return EquationDictionary.unpack(getPackedTarget(), getLength());
+        }
+
+        // The target as packed by EquationDictionary
+        public long getPackedTarget() {
+            return buffer.getLong(offset + 16);
+        }
+
+        public long getStartMillis() {
+            return buffer.getLong(offset + 8);
+        }
+
+        public int getLength() {
+            return header >>> 8 & 0xFF;
+        }
+
+        public int getGuessCount() {
+            return header & 0xFF;
+        }
+
+        // False for games abandoned by starting a new one
+        public boolean isFinished() {
+            return (header >>> 16 & FINISHED) != 0;
+        }
+
+        public boolean isWon() {
+            return (header >>> 16 & WON) != 0;
+        }
+
+        public long getPackedGuess(int i) {
+            return buffer.getLong(guessOffset(i));
+        }
+
+        public int getFeedback(int i) {
+            return buffer.getInt(guessOffset(i) + 8);
+        }
+
+        public int getElapsedMillis(int i) {
+            return buffer.getInt(guessOffset(i) + 12);
+        }
+
+        public GuessResult getResult(int i) {
+            return new GuessResult(EquationDictionary.unpack(getPackedGuess(i), getLength()), getFeedback(i));
+        }
+
+        private int guessOffset(int i) {
+            assert i >= 0 && i < getGuessCount() : "No such guess: " + i;
+            return offset + recordBytes(i);
+        }
+    }
+
+    // Buffers the guesses of the current game and appends the whole game once it ends
+    public final class Recorder implements GameListener {
+        private final NumberleModel model;
+        private final long[] guesses = new long[INumberleModel.MAX_ATTEMPTS];
+        private final int[] feedback = new int[INumberleModel.MAX_ATTEMPTS];
+        private final int[] elapsed = new int[INumberleModel.MAX_ATTEMPTS];
+        private int count;
+        private int targetIndex = -1;
+        private long target;
+        private int length;
+        private long startMillis;
+        private boolean inGame;
+
+        private Recorder(NumberleModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public void gameStarted(GameEvent.GameStarted event) {
+            if (inGame) {
+                append(targetIndex, target, length, startMillis, false, false, guesses, feedback, elapsed, count);
+            }
+            count = 0;
+            targetIndex = model.getTargetIndex();
+            length = model.getTargetNumber().length();
+            target = EquationDictionary.pack(model.getTargetNumber(), length);
+            startMillis = System.currentTimeMillis();
+            inGame = targetIndex >= 0;
+        }
+
+        @Override
+        public void guessAccepted(GameEvent.GuessAccepted event) {
+            if (inGame && count < guesses.length) {
+                GuessResult result = event.getResult();
+                guesses[count] = EquationDictionary.pack(result.getGuess(), result.length());
+                feedback[count] = result.getFeedback();
+                elapsed[count] = (int) (System.currentTimeMillis() - startMillis);
+                count++;
+            }
+        }
+
+        @Override
+        public void gameOver(GameEvent.GameOver event) {
+            if (inGame) {
+                append(targetIndex, target, length, startMillis, true, event.isWon(), guesses, feedback, elapsed, count);
+                inGame = false;
+            }
+        }
+    }
+
+    // Usage: java GameJournal [journal directory]   prints every recorded game
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : System.getProperty(DIRECTORY_PROPERTY, "journal"));
+        long games = replay(directory, game -> {
+            String target = game.getTarget();
+            StringBuilder line = new StringBuilder();
+            line.append(String.format("%tF %<tT  ", game.getStartMillis()));
+            line.append(target != null ? target : "#" + game.getTargetIndex());
+            line.append(game.isWon() ? "  won " : game.isFinished() ? "  lost" : "  left");
+            for (int i = 0; i < game.getGuessCount(); i++) {
+                line.append("  ").append(game.getResult(i).getGuess());
+            }
+            System.out.println(line);
+        });
+        System.out.println(games + " games");
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+
+    @Test
+    void testRecordsKeepTheirTargetAcrossDictionaries(@TempDir Path dir) throws Exception {
+        // Index 0 is a different equation in each dictionary, and one of them has another length
+        EquationDictionary sevens = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1"));
+        EquationDictionary reloaded = EquationDictionary.of(List.of("4/2+0=2", "1+2+3=6"));
+        EquationDictionary fives = EquationDictionary.of(List.of("1+2=3", "3*3=9"));
+        try (GameJournal journal = GameJournal.open(dir, 1 << 16)) {
+            for (EquationDictionary dictionary : List.of(sevens, reloaded, fives)) {
+                NumberleModel model = new NumberleModel(dictionary);
+                journal.record(model);
+                model.initialize(0);
+                model.processInput(model.getTargetNumber());
+            }
+        }
+        JournalStats stats = new JournalStats();
+        GameJournal.replay(dir, stats);
+        assertEquals(3, stats.getFinished());
+        assertEquals(1, stats.getPlays("1+2+3=6"), "Index 0 of the first dictionary.");
+        assertEquals(1, stats.getPlays("4/2+0=2"), "Index 0 of the reloaded dictionary.");
+        assertEquals(1, stats.getPlays("1+2=3"), "Games of other lengths keep their own target.");
+        assertEquals(0, stats.getPlays("9-8*1=1"));
+        assertEquals(1.0, stats.getDifficulty("1+2=3"), 1e-9);
+        assertEquals(3, stats.hardest(10, 1).size());
+    }
+
+    @Test
+    void testLongEquationsKeepTheirOwnStats(@TempDir Path dir) throws Exception {
+        // 16 symbols use all 64 packed bits
+        List<String> equations = List.of("9+1+1+1+1+1+1=15", "9+1+1+1+1+1+2=16");
+        try (GameJournal journal = GameJournal.open(dir, 1 << 16)) {
+            for (int game = 0; game < equations.size(); game++) {
+                NumberleModel model = new NumberleModel(EquationDictionary.of(equations));
+                journal.record(model);
+                model.initialize(game);
+                for (int miss = 0; miss < game; miss++) {
+                    model.processInput(equations.get(1 - game));
+                }
+                model.processInput(model.getTargetNumber());
+            }
+        }
+        JournalStats stats = new JournalStats();
+        GameJournal.replay(dir, stats);
+        assertEquals(1, stats.getPlays("9+1+1+1+1+1+1=15"));
+        assertEquals(1, stats.getPlays("9+1+1+1+1+1+2=16"));
+        assertEquals(List.of("9+1+1+1+1+1+2=16", "9+1+1+1+1+1+1=15"), stats.hardest(10, 1),
+                "Targets unpack to the equations played, hardest first.");
+    }
+
+    @Test
+    void testSecondWriterIsRefused(@TempDir Path dir) throws Exception {
+        GameJournal journal = GameJournal.open(dir, 1 << 16);
+        try {
+            assertThrows(IOException.class, () -> GameJournal.open(dir, 1 << 16),
+                    "A directory in use must not be written by a second journal.");
+        } finally {
+            journal.close();
+        }
+        GameJournal.open(dir, 1 << 16).close(); // the lock is released on close
+    }
+
+    @Test
+    void testGameJournalReplay(@TempDir Path dir) throws Exception {
+        // A tiny segment size forces several segment files
+        try (GameJournal journal = GameJournal.open(dir, 256)) {
+            for (int game = 0; game < 10; game++) {
+                NumberleModel played = new NumberleModel();
+                journal.record(played);
+                played.initialize();
+                played.processInput("1+2+3=6");
+                played.processInput(played.getTargetNumber());
+            }
+        }
+        JournalStats stats = new JournalStats();
+        List<String> guesses = new ArrayList<>();
+        long games = GameJournal.replay(dir, game -> {
+            stats.game(game);
+            for (int i = 0; i < game.getGuessCount(); i++) {
+                guesses.add(game.getResult(i).getGuess());
+            }
+        });
+        assertEquals(10, games, "Every finished game should be replayed.");
+        assertEquals(1.0, stats.getWinRate(), "Every game ended on its target.");
+        assertEquals(10, stats.getDistribution()[1] + stats.getDistribution()[2]);
+        assertTrue(guesses.contains("1+2+3=6"), "Guesses should unpack to their original text.");
+
+        // Reopening continues after the last record
+        try (GameJournal journal = GameJournal.open(dir, 256)) {
+            NumberleModel abandoned = new NumberleModel();
+            journal.record(abandoned);
+            abandoned.initialize();
+            abandoned.initialize(); // abandons the first game
+        }
+        assertEquals(11, GameJournal.replay(dir, game -> { }));
+    }
+}
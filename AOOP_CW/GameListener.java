@@ -0,0 +1,14 @@
+// Receives GameEvents; override only the events of interest
+public interface GameListener {
+    default void gameStarted(GameEvent.GameStarted event) {
+    }
+
+    default void guessAccepted(GameEvent.GuessAccepted event) {
+    }
+
+    default void guessRejected(GameEvent.GuessRejected event) {
+    }
+
+    default void gameOver(GameEvent.GameOver event) {
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+
+// What the feedback so far says about the target, kept up to date one guess at a time: a bitmask of the
+// symbols still allowed at each position and the least and most copies of each symbol. Checking a guess
+// against it is O(length) and allocates nothing unless the guess breaks a rule.
+public final class GuessConstraints {
+    private static final int ALL_SYMBOLS = (1 << EquationAlphabet.SIZE) - 1;
+
+    private final int[] allowed = new int[Feedback.MAX_LENGTH];
+    private final int[] minCount = new int[EquationAlphabet.SIZE];
+    private final int[] maxCount = new int[EquationAlphabet.SIZE];
+    private final int[] counts = new int[EquationAlphabet.SIZE]; // scratch
+    private int length;
+
+    public GuessConstraints(int length) {
+        reset(length);
+    }
+
+    public void reset(int length) {
+        assert length > 0 && length <= Feedback.MAX_LENGTH : "Unsupported equation length";
+        this.length = length;
+        Arrays.fill(allowed, 0, length, ALL_SYMBOLS);
+        Arrays.fill(minCount, 0);
+        Arrays.fill(maxCount, length);
+    }
+
+    // Folds the feedback of one scored guess into the constraints
+    public void update(GuessResult result) {
+        assert result.length() == length : "Guess and constraints must have the same length";
+        Arrays.fill(counts, 0);
+        int absent = 0;
+        for (int i = 0; i < length; i++) {
+            int symbol = EquationAlphabet.indexOf(result.getSymbol(i));
+            int state = result.getState(i);
+            if (state == Feedback.CORRECT) {
+                allowed[i] = 1 << symbol;
+                counts[symbol]++;
+            } else {
+                allowed[i] &= ~(1 << symbol);
+                if (state == Feedback.PRESENT) {
+                    counts[symbol]++;
+                } else {
+                    absent |= 1 << symbol;
+                }
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            int symbol = EquationAlphabet.indexOf(result.getSymbol(i));
+            minCount[symbol] = Math.max(minCount[symbol], counts[symbol]);
+            if ((absent >>> symbol & 1) != 0) {
+                maxCount[symbol] = counts[symbol]; // a gray copy means every copy has been found
+            }
+        }
+    }
+
+    public boolean allows(CharSequence guess) {
+        return violation(guess) == null;
+    }
+
+    // Null when guess is consistent with all the feedback so far, otherwise the first rule it breaks.
+    // guess must already be well formed.
+    public String violation(CharSequence guess) {
+        assert guess.length() == length : "Guess and constraints must have the same length";
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < length; i++) {
+            int symbol = EquationAlphabet.indexOf(guess.charAt(i));
+            counts[symbol]++;
+            if (Integer.bitCount(allowed[i]) == 1 && allowed[i] != 1 << symbol) {
+                return "position " + (i + 1) + " must be " + EquationAlphabet.symbolAt(Integer.numberOfTrailingZeros(allowed[i]));
+            }
+        }
+        for (int symbol = 0; symbol < EquationAlphabet.SIZE; symbol++) {
+            if (counts[symbol] < minCount[symbol]) {
+                return minCount[symbol] == 1
+                        ? "guess must contain " + EquationAlphabet.symbolAt(symbol)
+                        : "guess must contain " + EquationAlphabet.symbolAt(symbol) + " at least " + minCount[symbol] + " times";
+            }
+            if (counts[symbol] > maxCount[symbol]) {
+                return maxCount[symbol] == 0
+                        ? EquationAlphabet.symbolAt(symbol) + " is not in the equation"
+                        : EquationAlphabet.symbolAt(symbol) + " appears only " + maxCount[symbol] + " time" + (maxCount[symbol] == 1 ? "" : "s");
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            int symbol = EquationAlphabet.indexOf(guess.charAt(i));
+            if ((allowed[i] >>> symbol & 1) == 0) {
+                return EquationAlphabet.symbolAt(symbol) + " cannot be at position " + (i + 1);
+            }
+        }
+        return null;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    // Bitmask of the symbols still possible at position, bit n for EquationAlphabet symbol n
+    public int allowedAt(int position) {
+        return allowed[position];
+    }
+
+    public int getMinCount(int symbol) {
+        return minCount[symbol];
+    }
+
+    public int getMaxCount(int symbol) {
+        return maxCount[symbol];
+    }
+}
@@ -0,0 +1,18 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuessConstraintsTest {
+
+    @Test
+    void testGuessConstraintsCountLimits() {
+        GuessConstraints constraints = new GuessConstraints(7);
+        // Target 1+2+3=6: one 1 is found, the second is gray, so exactly one 1 remains possible
+        constraints.update(new GuessResult("1+1+4=6", Feedback.score("1+1+4=6", "1+2+3=6", new int[EquationAlphabet.SIZE])));
+        assertEquals(1, constraints.getMinCount(EquationAlphabet.indexOf('1')));
+        assertEquals(1, constraints.getMaxCount(EquationAlphabet.indexOf('1')));
+        assertEquals(0, constraints.getMaxCount(EquationAlphabet.indexOf('4')));
+        assertEquals("1 appears only 1 time", constraints.violation("1+1+5=6"));
+        assertEquals("4 is not in the equation", constraints.violation("1+5+4=6"));
+        assertNull(constraints.violation("1+2+3=6"));
+    }
+}
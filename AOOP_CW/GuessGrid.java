@@ -0,0 +1,163 @@
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+// Guess history drawn as a grid of tiles. Every (symbol, state) tile is rendered once per display scale
+// into an image and then blitted, adding a row repaints only that row, and painting skips rows outside
+// the clip, so frame time does not grow with the length of the history.
+public class GuessGrid extends JComponent implements Scrollable {
+    private static final long serialVersionUID = 1L;
+    private static final int TILE = 56;
+    private static final int GAP = 6;
+    private static final Color[] STATE_COLORS = {null, Color.GRAY, Color.ORANGE, Color.GREEN};
+
+    private final List<GuessResult> rows = new ArrayList<>();
+    private int columns;
+    private BufferedImage[][] tiles = new BufferedImage[STATE_COLORS.length][EquationAlphabet.SIZE];
+    private double tileScale;
+
+    public GuessGrid(int columns) {
+        this.columns = columns;
+        setOpaque(true);
+        setBackground(Color.WHITE);
+    }
+
+    // Color of a Feedback state, null for Feedback.EMPTY
+    public static Color stateColor(int state) {
+        return STATE_COLORS[state];
+    }
+
+    public void addRow(GuessResult result) {
+        rows.add(result);
+        if (result.length() > columns) {
+            columns = result.length();
+            repaint();
+        }
+        revalidate();
+        Rectangle bounds = rowBounds(rows.size() - 1);
+        repaint(bounds);
+        scrollRectToVisible(bounds);
+    }
+
+    public void clear() {
+        rows.clear();
+        revalidate();
+        repaint();
+    }
+
+    // Clears the grid for games with equations of another length
+    public void reset(int columns) {
+        this.columns = columns;
+        clear();
+    }
+
+    private int left() {
+        return Math.max(GAP, (getWidth() - (columns * (TILE + GAP) - GAP)) / 2);
+    }
+
+    private Rectangle rowBounds(int row) {
+        return new Rectangle(0, GAP + row * (TILE + GAP), getWidth(), TILE);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        NumberleEvents.ViewRepaint event = new NumberleEvents.ViewRepaint();
+        event.begin();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(getSize());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        double scale = ((Graphics2D) g).getTransform().getScaleX();
+        if (scale != tileScale) {
+            tiles = new BufferedImage[STATE_COLORS.length][EquationAlphabet.SIZE];
+            tileScale = scale;
+        }
+
+        int first = Math.max(0, (clip.y - GAP) / (TILE + GAP));
+        int last = Math.min(rows.size() - 1, (clip.y + clip.height) / (TILE + GAP));
+        int x0 = left();
+        for (int row = first; row <= last; row++) {
+            GuessResult result = rows.get(row);
+            int y = GAP + row * (TILE + GAP);
+            for (int i = 0; i < result.length(); i++) {
+                g.drawImage(tile(result.getSymbol(i), result.getState(i)), x0 + i * (TILE + GAP), y, TILE, TILE, null);
+            }
+        }
+        if (event.shouldCommit()) {
+            event.path = "history";
+            event.items = Math.max(0, last - first + 1);
+            event.commit();
+        }
+    }
+
+    // Tile image at device resolution, rendered on first use
+    private BufferedImage tile(char symbol, int state) {
+        int index = EquationAlphabet.indexOf(symbol);
+        BufferedImage image = tiles[state][index];
+        if (image == null) {
+            int size = (int) Math.ceil(TILE * tileScale);
+            image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.transform(AffineTransform.getScaleInstance(tileScale, tileScale));
+            g.setColor(STATE_COLORS[state] == null ? Color.LIGHT_GRAY : STATE_COLORS[state]);
+            g.fillRoundRect(0, 0, TILE, TILE, 10, 10);
+            g.setColor(state == Feedback.CORRECT ? Color.BLACK : Color.WHITE);
+            g.setFont(new Font(Font.MONOSPACED, Font.BOLD, 36));
+            FontMetrics metrics = g.getFontMetrics();
+            String text = String.valueOf(symbol);
+            g.drawString(text, (TILE - metrics.stringWidth(text)) / 2,
+                    (TILE - metrics.getHeight()) / 2 + metrics.getAscent());
+            g.dispose();
+            tiles[state][index] = image;
+        }
+        return image;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int width = columns * (TILE + GAP) + GAP;
+        int height = Math.max(INumberleModel.MAX_ATTEMPTS, rows.size()) * (TILE + GAP) + GAP;
+        return new Dimension(width, height);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return TILE + GAP;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(TILE + GAP, visibleRect.height - (TILE + GAP));
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
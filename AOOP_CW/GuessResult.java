@@ -0,0 +1,75 @@
+// Immutable, already scored guess. Per-position and per-key states use the Feedback constants.
+public final class GuessResult {
+    private final String guess;
+    private final int feedback;
+    private final long keyStates; // best state of each alphabet symbol in this guess, 2 bits per symbol
+
+    public GuessResult(String guess, int feedback) {
+        assert guess.length() <= Feedback.MAX_LENGTH : "Guess is too long to pack";
+        this.guess = guess;
+        this.feedback = feedback;
+        long keys = 0;
+        for (int i = 0; i < guess.length(); i++) {
+            int shift = EquationAlphabet.indexOf(guess.charAt(i)) << 1;
+            long state = Feedback.stateAt(feedback, i);
+            if (state > ((keys >>> shift) & 3)) {
+                keys = (keys & ~(3L << shift)) | (state << shift);
+            }
+        }
+        this.keyStates = keys;
+    }
+
+    public String getGuess() {
+        return guess;
+    }
+
+    public int length() {
+        return guess.length();
+    }
+
+    // Packed feedback code, see Feedback
+    public int getFeedback() {
+        return feedback;
+    }
+
+    // One letter per position: G correct, O present elsewhere, X absent
+    public String toLetters() {
+        char[] letters = new char[guess.length()];
+        for (int i = 0; i < letters.length; i++) {
+            int state = getState(i);
+            letters[i] = state == Feedback.CORRECT ? 'G' : state == Feedback.PRESENT ? 'O' : 'X';
+        }
+        return new String(letters);
+    }
+
+    public char getSymbol(int position) {
+        return guess.charAt(position);
+    }
+
+    public int getState(int position) {
+        return Feedback.stateAt(feedback, position);
+    }
+
+    // Best state of the key in this guess, Feedback.EMPTY if the guess does not use it
+    public int getKeyState(char symbol) {
+        int index = EquationAlphabet.indexOf(symbol);
+        return index < 0 ? Feedback.EMPTY : (int) (keyStates >>> (index << 1)) & 3;
+    }
+
+    public boolean isCorrect() {
+        return feedback == Feedback.allCorrect(guess.length());
+    }
+
+    // Legacy "symbol, status, space" rendering: ✓ correct, ? wrong position, X not in equation
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(guess.length() * 3);
+        for (int i = 0; i < guess.length(); i++) {
+            int state = getState(i);
+            text.append(guess.charAt(i))
+                    .append(state == Feedback.CORRECT ? '✓' : state == Feedback.PRESENT ? '?' : 'X')
+                    .append(' ');
+        }
+        return text.toString();
+    }
+}
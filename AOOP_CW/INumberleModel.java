@@ -1,4 +1,5 @@
-
+import java.util.List;
+import java.util.concurrent.Executor;
 
 public interface INumberleModel {
     int MAX_ATTEMPTS = 6;
@@ -9,6 +10,19 @@ public interface INumberleModel {
     boolean isGameWon();
     String getTargetNumber();
     StringBuilder getCurrentGuess();
+    GuessResult getLastResult();
+    List<GuessResult> getGuessHistory();
+    List<String> getEquations();
+    EquationDictionary getDictionary();
+    int getRemainingCandidateCount();
+    List<String> getRemainingCandidates();
     int getRemainingAttempts();
     void startNewGame();
+    void setEquationLength(int length);
+    int getEquationLength();
+    void setHardMode(boolean hardMode);
+    boolean isHardMode();
+    void addListener(GameListener listener);
+    void addListener(GameListener listener, Executor executor);
+    void removeListener(GameListener listener);
 }
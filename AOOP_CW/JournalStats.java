@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Running totals over a stream of journaled games. Memory grows with the equations played, not with
+// the number of games, so a journal of any size can be folded through it in one pass. Targets are told
+// apart by the equation each record keeps, so games of every length and from before a dictionary
+// reload are attributed correctly.
+public final class JournalStats implements GameJournal.Visitor {
+    // A lost game counts as one guess more than the last attempt when ranking difficulty
+    private static final int LOSS_COST = INumberleModel.MAX_ATTEMPTS + 1;
+
+    private long games;
+    private long finished;
+    private long won;
+    private final long[] distribution = new long[INumberleModel.MAX_ATTEMPTS + 1]; // [n] = wins in n guesses, [0] = losses
+    // Per equation length, packed target -> {plays, cost}. A packed equation can use all 64 bits, so the
+    // length cannot share its key.
+    private final Map<Integer, Map<Long, long[]>> targets = new HashMap<>();
+
+    @Override
+    public void game(GameJournal.Game game) {
+        games++;
+        if (!game.isFinished()) {
+            return;
+        }
+        finished++;
+        int guesses = game.isWon() ? game.getGuessCount() : LOSS_COST;
+        if (game.isWon()) {
+            won++;
+            distribution[game.getGuessCount()]++;
+        } else {
+            distribution[0]++;
+        }
+        long[] target = targets.computeIfAbsent(game.getLength(), length -> new HashMap<>())
+                .computeIfAbsent(game.getPackedTarget(), packed -> new long[2]);
+        target[0]++;
+        target[1] += guesses;
+    }
+
+    private long[] target(String equation) {
+        Map<Long, long[]> sameLength = targets.get(equation.length());
+        return sameLength == null ? null : sameLength.get(EquationDictionary.pack(equation, equation.length()));
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getFinished() {
+        return finished;
+    }
+
+    public double getWinRate() {
+        return finished == 0 ? 0 : (double) won / finished;
+    }
+
+    public long[] getDistribution() {
+        return distribution.clone();
+    }
+
+    public long getPlays(String equation) {
+        long[] target = target(equation);
+        return target == null ? 0 : target[0];
+    }
+
+    // Mean guesses needed for a target, NaN if it was never played to the end
+    public double getDifficulty(String equation) {
+        long[] target = target(equation);
+        return target == null ? Double.NaN : (double) target[1] / target[0];
+    }
+
+    // The hardest targets that were played at least minPlays times, hardest first
+    public List<String> hardest(int limit, long minPlays) {
+        List<String> played = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Long, long[]>> sameLength : targets.entrySet()) {
+            for (Map.Entry<Long, long[]> target : sameLength.getValue().entrySet()) {
+                if (target.getValue()[0] >= minPlays) {
+                    played.add(EquationDictionary.unpack(target.getKey(), sameLength.getKey()));
+                }
+            }
+        }
+        played.sort((a, b) -> Double.compare(getDifficulty(b), getDifficulty(a)));
+        return new ArrayList<>(played.subList(0, Math.min(limit, played.size())));
+    }
+
+    // Usage: java JournalStats [journal directory]
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : System.getProperty(GameJournal.DIRECTORY_PROPERTY, "journal"));
+        JournalStats stats = new JournalStats();
+        GameJournal.replay(directory, stats);
+        System.out.printf("games %d, finished %d, win rate %.1f%%%n", stats.getGames(), stats.getFinished(), 100 * stats.getWinRate());
+        for (int n = 1; n <= INumberleModel.MAX_ATTEMPTS; n++) {
+            System.out.printf("  won in %d: %d%n", n, stats.distribution[n]);
+        }
+        System.out.printf("  lost:     %d%n", stats.distribution[0]);
+        System.out.println("hardest equations (mean guesses, plays):");
+        for (String equation : stats.hardest(10, 1)) {
+            System.out.printf("  %s  %.2f  %d%n", equation, stats.getDifficulty(equation), stats.getPlays(equation));
+        }
+    }
+}
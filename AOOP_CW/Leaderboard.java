@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live ranking of a tournament. Solved games sit in a lock-free skip list ordered by attempts, then
+// solve time, so a finish is one CAS-based insert and top(n) walks the first n entries. Everything else
+// is a striped LongAdder, so concurrent guesses never contend on a shared counter.
+public final class Leaderboard {
+    private static final Comparator<Standing> ORDER = Comparator
+            .comparingInt((Standing s) -> s.attempts)
+            .thenComparingLong(s -> s.solveNanos)
+            .thenComparingLong(s -> s.playerId);
+
+    private final ConcurrentSkipListSet<Standing> solved = new ConcurrentSkipListSet<>(ORDER);
+    private final LongAdder players = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder[] solvedIn = new LongAdder[INumberleModel.MAX_ATTEMPTS + 1];
+
+    public Leaderboard() {
+        for (int i = 0; i < solvedIn.length; i++) {
+            solvedIn[i] = new LongAdder();
+        }
+    }
+
+    void recordJoin() {
+        players.increment();
+    }
+
+    void recordGuess(boolean accepted) {
+        (accepted ? guesses : rejected).increment();
+    }
+
+    void recordSolved(long playerId, String name, int attempts, long solveNanos) {
+        solved.add(new Standing(playerId, name, attempts, solveNanos));
+        solvedIn[attempts].increment();
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    // Best n solved games, best first
+    public List<Standing> top(int n) {
+        List<Standing> top = new ArrayList<>(Math.min(n, 64));
+        Iterator<Standing> it = solved.iterator();
+        while (top.size() < n && it.hasNext()) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    public long getPlayers() {
+        return players.sum();
+    }
+
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    public long getRejectedGuesses() {
+        return rejected.sum();
+    }
+
+    public long getSolved() {
+        long total = 0;
+        for (LongAdder adder : solvedIn) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    // Players who solved it in exactly this many attempts
+    public long getSolvedIn(int attempts) {
+        return solvedIn[attempts].sum();
+    }
+
+    public static final class Standing {
+        private final long playerId;
+        private final String name;
+        private final int attempts;
+        private final long solveNanos;
+
+        Standing(long playerId, String name, int attempts, long solveNanos) {
+            this.playerId = playerId;
+            this.name = name;
+            this.attempts = attempts;
+            this.solveNanos = solveNanos;
+        }
+
+        public long getPlayerId() {
+            return playerId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getSolveMillis() {
+            return solveNanos / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + attempts + " " + getSolveMillis() + "ms";
+        }
+    }
+}
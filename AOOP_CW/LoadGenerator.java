@@ -0,0 +1,435 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+// Sustained mixed traffic against the game engine: synthetic players, each with its own model and
+// controller on one shared dictionary, go through NumberleController.startNewGame and processInput.
+// Players are split evenly across worker threads, so every model is only ever used by one thread.
+//
+//   closed  every thread sends its next request as soon as the last one returns. Latency is service time.
+//   open    requests are due at a fixed total --rate. Latency runs from when a request was due, not from when
+//           a late thread got round to it, so a stall counts against every request that queued behind it
+//           (coordinated omission correction). A thread that falls behind catches up without sleeping.
+//
+// The report is key=value lines, so runs on different machines, core counts and session counts can be
+// diffed or loaded into a spreadsheet side by side.
+public final class LoadGenerator {
+    // Sub-buckets per power of two in the recording histogram: percentiles are within 1/32 (about 3%)
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Open-loop threads stop parking this close to the next due time, so the timer does not add latency
+    private static final long SPIN_NANOS = 100_000;
+
+    enum Mode { CLOSED, OPEN }
+
+    enum Kind {
+        START, VALID, MALFORMED, UNBALANCED;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final EquationDictionary dictionary;
+    private final Mode mode;
+    private final int players;
+    private final int threads;
+    private final double rate;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    // Percent of guesses that are malformed and unbalanced; the rest are dictionary equations
+    private final int malformedPercent;
+    private final int unbalancedPercent;
+
+    LoadGenerator(EquationDictionary dictionary, Mode mode, int players, int threads, double rate,
+                  int warmupSeconds, int durationSeconds, int malformedPercent, int unbalancedPercent) {
+        if (players < threads || threads < 1) {
+            throw new IllegalArgumentException("Need at least one player per thread");
+        }
+        if (mode == Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("Open-loop mode needs --rate");
+        }
+        if (malformedPercent < 0 || unbalancedPercent < 0 || malformedPercent + unbalancedPercent > 100) {
+            throw new IllegalArgumentException("Guess mix must add up to at most 100%");
+        }
+        this.dictionary = dictionary;
+        this.mode = mode;
+        this.players = players;
+        this.threads = threads;
+        this.rate = rate;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.malformedPercent = malformedPercent;
+        this.unbalancedPercent = unbalancedPercent;
+    }
+
+    public Report run() throws InterruptedException {
+        long start = System.nanoTime() + 10_000_000; // every thread starts on the same schedule
+        long recordFrom = start + warmupSeconds * 1_000_000_000L;
+        long end = recordFrom + durationSeconds * 1_000_000_000L;
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> running = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int owned = players / threads + (t < players % threads ? 1 : 0);
+            Worker worker = new Worker(t, owned, start, recordFrom, end);
+            Thread thread = new Thread(worker, "load-" + t);
+            workers.add(worker);
+            running.add(thread);
+            thread.start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        Report report = new Report();
+        for (Worker worker : workers) {
+            report.add(worker);
+        }
+        return report;
+    }
+
+    private final class Worker implements Runnable {
+        private final Random random;
+        private final NumberleController[] controllers;
+        private final long start;
+        private final long recordFrom;
+        private final long end;
+        private final long intervalNanos;
+        private final Histogram[] histograms = new Histogram[Kind.values().length];
+        private final long[] perSecond;
+
+        Worker(int index, int owned, long start, long recordFrom, long end) {
+            this.random = new Random(index);
+            this.controllers = new NumberleController[owned];
+            for (int i = 0; i < owned; i++) {
+                NumberleModel model = new NumberleModel(dictionary);
+                controllers[i] = new NumberleController(model);
+                model.initialize(random.nextInt(dictionary.size()));
+            }
+            this.start = start;
+            this.recordFrom = recordFrom;
+            this.end = end;
+            // This thread's share of the total rate
+            this.intervalNanos = mode == Mode.OPEN ? (long) (threads * 1e9 / rate) : 0;
+            for (int k = 0; k < histograms.length; k++) {
+                histograms[k] = new Histogram();
+            }
+            this.perSecond = new long[durationSeconds];
+        }
+
+        @Override
+        public void run() {
+            long due = start;
+            int next = 0;
+            while (true) {
+                long now = System.nanoTime();
+                if (mode == Mode.OPEN) {
+                    if (due - now > SPIN_NANOS) {
+                        LockSupport.parkNanos(due - now - SPIN_NANOS); // parking oversleeps by tens of microseconds
+                        continue;
+                    }
+                    if (due > now) {
+                        Thread.yield();
+                        continue;
+                    }
+                } else {
+                    due = now;
+                }
+                if (due >= end) {
+                    break;
+                }
+                NumberleController controller = controllers[next];
+                next = next + 1 == controllers.length ? 0 : next + 1;
+                Kind kind;
+                String guess = null;
+                if (controller.isGameOver()) {
+                    kind = Kind.START;
+                } else {
+                    kind = pickKind();
+                    guess = guess(kind);
+                }
+                long began = System.nanoTime();
+                if (kind == Kind.START) {
+                    controller.startNewGame();
+                } else {
+                    controller.processInput(guess);
+                }
+                long finished = System.nanoTime();
+                // Open loop measures from when the request was due; closed loop has no schedule to miss
+                long latency = finished - (mode == Mode.OPEN ? due : began);
+                if (due >= recordFrom) {
+                    histograms[kind.ordinal()].record(latency);
+                    int second = (int) ((finished - recordFrom) / 1_000_000_000L);
+                    if (second < perSecond.length) {
+                        perSecond[second]++;
+                    }
+                }
+                due += intervalNanos;
+            }
+        }
+
+        private Kind pickKind() {
+            int roll = random.nextInt(100);
+            if (roll < malformedPercent) {
+                return Kind.MALFORMED;
+            }
+            return roll < malformedPercent + unbalancedPercent ? Kind.UNBALANCED : Kind.VALID;
+        }
+
+        private String guess(Kind kind) {
+            String equation = dictionary.get(random.nextInt(dictionary.size()));
+            switch (kind) {
+                case MALFORMED:
+                    return malformed(equation);
+                case UNBALANCED:
+                    return unbalanced(equation);
+                default:
+                    return equation;
+            }
+        }
+
+        // Typing mistakes: a dropped or doubled character, a stray symbol, or two operators in a row
+        private String malformed(String equation) {
+            int at = random.nextInt(equation.length());
+            switch (random.nextInt(4)) {
+                case 0:
+                    return equation.substring(0, at) + equation.substring(at + 1);
+                case 1:
+                    return equation.substring(0, at) + equation.charAt(at) + equation.substring(at);
+                case 2:
+                    return equation.substring(0, at) + 'x' + equation.substring(at + 1);
+                default:
+                    return "+*" + equation.substring(2);
+            }
+        }
+
+        // Well-formed but false: one digit of the result changed
+        private String unbalanced(String equation) {
+            int equals = equation.indexOf('=');
+            for (int i = equation.length() - 1; i > equals; i--) {
+                char c = equation.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    char changed = (char) ('0' + (c - '0' + 1 + random.nextInt(8)) % 10);
+                    if (changed == '0' && i == equals + 1 && i + 1 < equation.length()) {
+                        changed = '1'; // no leading zero, which would make it malformed instead
+                    }
+                    return equation.substring(0, i) + changed + equation.substring(i + 1);
+                }
+            }
+            return equation;
+        }
+    }
+
+    // Log-linear histogram owned by one worker thread; merged into the report after the run
+    static final class Histogram {
+        private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB_COUNT];
+        private long count;
+        private long max;
+
+        void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            counts[index(nanos)]++;
+            count++;
+            max = Math.max(max, nanos);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getMaxNanos() {
+            return max;
+        }
+
+        // Upper bound of the sub-bucket holding the quantile, capped at the largest value recorded
+        long getPercentileNanos(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, upperBound(i));
+                }
+            }
+            return max;
+        }
+
+        // Values below SUB_COUNT are exact; above that each power of two is split into SUB_COUNT buckets
+        static int index(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS - 1;
+            return (shift + 1) * SUB_COUNT + (int) (value >>> shift) - SUB_COUNT;
+        }
+
+        static long upperBound(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+            int shift = index / SUB_COUNT - 1;
+            long sub = index % SUB_COUNT + SUB_COUNT;
+            return ((sub + 1) << shift) - 1;
+        }
+    }
+
+    final class Report {
+        private final Histogram[] histograms = new Histogram[Kind.values().length];
+        private final Histogram guesses = new Histogram();
+        private final long[] perSecond = new long[durationSeconds];
+
+        Report() {
+            for (int k = 0; k < histograms.length; k++) {
+                histograms[k] = new Histogram();
+            }
+        }
+
+        private void add(Worker worker) {
+            for (int k = 0; k < histograms.length; k++) {
+                histograms[k].add(worker.histograms[k]);
+                if (k != Kind.START.ordinal()) {
+                    guesses.add(worker.histograms[k]);
+                }
+            }
+            for (int s = 0; s < perSecond.length; s++) {
+                perSecond[s] += worker.perSecond[s];
+            }
+        }
+
+        Histogram get(Kind kind) {
+            return histograms[kind.ordinal()];
+        }
+
+        Histogram guesses() {
+            return guesses;
+        }
+
+        long[] perSecond() {
+            return perSecond.clone();
+        }
+
+        void write(PrintStream out) {
+            out.println("mode=" + mode.name().toLowerCase());
+            out.println("cores=" + Runtime.getRuntime().availableProcessors());
+            out.println("java=" + System.getProperty("java.version"));
+            out.println("threads=" + threads);
+            out.println("players=" + players);
+            out.println("targetRate=" + (mode == Mode.OPEN ? Math.round(rate) : 0));
+            out.println("dictionary=" + dictionary.size() + "x" + dictionary.length());
+            out.println("mix.malformedPercent=" + malformedPercent);
+            out.println("mix.unbalancedPercent=" + unbalancedPercent);
+            out.println("warmupSeconds=" + warmupSeconds);
+            out.println("durationSeconds=" + durationSeconds);
+            long total = 0;
+            long min = Long.MAX_VALUE;
+            StringBuilder series = new StringBuilder();
+            for (long second : perSecond) {
+                total += second;
+                min = Math.min(min, second);
+                series.append(series.length() == 0 ? "" : ",").append(second);
+            }
+            out.println("throughput.mean=" + (durationSeconds == 0 ? 0 : total / durationSeconds));
+            out.println("throughput.min=" + (perSecond.length == 0 ? 0 : min));
+            out.println("throughput.perSecond=" + series);
+            writeLatency(out, "guess", guesses);
+            for (Kind kind : Kind.values()) {
+                writeLatency(out, kind.key(), get(kind));
+            }
+        }
+
+        private void writeLatency(PrintStream out, String name, Histogram histogram) {
+            out.println(name + ".count=" + histogram.getCount());
+            out.println(name + ".p50Micros=" + micros(histogram.getPercentileNanos(0.5)));
+            out.println(name + ".p99Micros=" + micros(histogram.getPercentileNanos(0.99)));
+            out.println(name + ".p999Micros=" + micros(histogram.getPercentileNanos(0.999)));
+            out.println(name + ".maxMicros=" + micros(histogram.getMaxNanos()));
+        }
+
+        private String micros(long nanos) {
+            return String.format("%.1f", nanos / 1000.0);
+        }
+    }
+
+    // Usage: java LoadGenerator [--mode closed|open] [--rate guesses/s] [--players n] [--threads n]
+    //            [--warmup s] [--duration s] [--malformed %] [--unbalanced %] [--length n] [--report file]
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Mode mode = Mode.CLOSED;
+        double rate = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int players = -1;
+        int warmup = 5;
+        int duration = 30;
+        int malformed = 10;
+        int unbalanced = 10;
+        int length = EquationLibrary.DEFAULT_LENGTH;
+        String reportFile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--mode":
+                    mode = Mode.valueOf(value.toUpperCase());
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--players":
+                    players = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    duration = Integer.parseInt(value);
+                    break;
+                case "--malformed":
+                    malformed = Integer.parseInt(value);
+                    break;
+                case "--unbalanced":
+                    unbalanced = Integer.parseInt(value);
+                    break;
+                case "--length":
+                    length = Integer.parseInt(value);
+                    break;
+                case "--report":
+                    reportFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        EquationDictionary dictionary = EquationLibrary.shared().get(length);
+        // The fallback dictionary of one equation would measure a workload nobody plays
+        if (dictionary.size() < 2) {
+            throw new IllegalStateException("Only " + dictionary.size() + " equation of length " + length
+                    + " to play; set -D" + EquationDictionary.PATH_PROPERTY + " or put equations.txt on the classpath");
+        }
+        LoadGenerator generator = new LoadGenerator(dictionary, mode,
+                players > 0 ? players : 100 * threads, threads, rate, warmup, duration, malformed, unbalanced);
+        Report report = generator.run();
+        report.write(System.out);
+        if (reportFile != null) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(reportFile)), false, StandardCharsets.UTF_8)) {
+                report.write(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testLoadGeneratorHistogramAndMixedRun() throws Exception {
+        LoadGenerator.Histogram histogram = new LoadGenerator.Histogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxNanos());
+        long p99 = histogram.getPercentileNanos(0.99);
+        assertTrue(p99 >= 99_000 && p99 <= 99_000 * 33 / 32, "Percentiles are within one sub-bucket: " + p99);
+
+        EquationDictionary dictionary = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        LoadGenerator generator = new LoadGenerator(dictionary, LoadGenerator.Mode.OPEN, 10, 2, 2000, 0, 1, 20, 20);
+        LoadGenerator.Report report = generator.run();
+        long[] perSecond = report.perSecond();
+        assertEquals(1, perSecond.length);
+        long total = 0;
+        for (LoadGenerator.Kind kind : LoadGenerator.Kind.values()) {
+            assertTrue(report.get(kind).getCount() > 0, "Every kind of request is sent: " + kind);
+            total += report.get(kind).getCount();
+        }
+        assertEquals(2000, total, "Open loop sends exactly the scheduled requests");
+        assertEquals(total - report.get(LoadGenerator.Kind.START).getCount(), report.guesses().getCount());
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+// Minimal blocking client for NumberleServer; one request, one response line
+public class NumberleClient implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    public NumberleClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+    }
+
+    public String send(String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String response = in.readLine();
+        if (response == null) {
+            throw new IOException("Server closed the connection");
+        }
+        return response;
+    }
+
+    // Starts a game and returns its session id
+    public long start() throws IOException {
+        return open("START");
+    }
+
+    // Starts a game on today's daily puzzle and returns its session id
+    public long daily() throws IOException {
+        return open("DAILY");
+    }
+
+    private long open(String command) throws IOException {
+        String response = send(command);
+        if (!response.startsWith("OK ")) {
+            throw new IOException(response);
+        }
+        return Long.parseLong(response.split(" ")[1]);
+    }
+
+    public String guess(long session, String equation) throws IOException {
+        return send("GUESS " + session + " " + equation);
+    }
+
+    public String state(long session) throws IOException {
+        return send("STATE " + session);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("QUIT\n");
+            out.flush();
+        } catch (IOException e) {
+            // The server may already have dropped an idle or rejected connection
+        } finally {
+            socket.close();
+        }
+    }
+
+    // Usage: java NumberleClient [port], then type protocol commands
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : NumberleServer.DEFAULT_PORT;
+        try (NumberleClient client = new NumberleClient(port); Scanner scanner = new Scanner(System.in)) {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                System.out.println(client.send(line));
+            }
+        }
+    }
+}
@@ -1,3 +1,7 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public class NumberleController {
     private final INumberleModel model;
     private NumberleView view;
@@ -15,6 +19,14 @@ public class NumberleController {
         return validInput;
     }
 
+    // Computes the best next guess off the calling thread so the UI or console keeps accepting input
+    public CompletableFuture<String> requestHint() {
+        NumberleMetrics.shared().hintsRequested.increment();
+        List<GuessResult> history = new ArrayList<>(model.getGuessHistory());
+        EquationDictionary dictionary = model.getDictionary();
+        return CompletableFuture.supplyAsync(() -> NumberleSolver.forDictionary(dictionary).nextGuess(history));
+    }
+
     public void startNewGame() {
         model.startNewGame();
 //        System.out.println("Target Equation: " + model.getTargetNumber());
@@ -23,6 +35,21 @@ public class NumberleController {
         }
     }
 
+    // Loads the dictionary of that length off the calling thread; completes once it is ready. The model is
+    // not touched, so call setEquationLength on the model's thread afterwards.
+    public CompletableFuture<EquationDictionary> loadEquationLength(int length) {
+        return EquationLibrary.shared().load(length);
+    }
+
+    // Switches the model to a loaded length; the next game uses it
+    public void setEquationLength(int length) {
+        model.setEquationLength(length);
+    }
+
+    public void setHardMode(boolean hardMode) {
+        model.setHardMode(hardMode);
+    }
+
     public boolean isGameOver() {
         return model.isGameOver();
     }
@@ -35,8 +62,8 @@ public class NumberleController {
         return model.getTargetNumber();
     }
 
-    public StringBuilder getCurrentGuess() {
-        return model.getCurrentGuess();
+    public GuessResult getLastResult() {
+        return model.getLastResult();
     }
 
     public int getRemainingAttempts() {
@@ -0,0 +1,80 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Java Flight Recorder events for the game. When recording is off, begin/commit compile down to nothing
+// and the extra timing in processInput is skipped. Record with the settings in numberle.jfc:
+//   java -XX:StartFlightRecording=settings=default,settings=numberle.jfc,filename=numberle.jfr ...
+final class NumberleEvents {
+
+    private NumberleEvents() {
+    }
+
+    @Name("numberle.DictionaryLoad")
+    @Label("Dictionary Load")
+    @Category({"Numberle", "Model"})
+    @Description("Equation dictionary read and packed")
+    @StackTrace(false)
+    static final class DictionaryLoad extends Event {
+        @Label("Source")
+        String source;
+
+        @Label("Equations")
+        int count;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("numberle.GuessProcessed")
+    @Label("Guess Processed")
+    @Category({"Numberle", "Model"})
+    @Description("One call of NumberleModel.processInput")
+    @StackTrace(false)
+    static final class GuessProcessed extends Event {
+        @Label("Outcome")
+        String outcome;
+
+        @Label("Validation Time")
+        @Description("Format check of the input")
+        @Timespan
+        long validationNanos;
+
+        @Label("Evaluation Time")
+        @Description("Balance check through the validity index or the evaluator")
+        @Timespan
+        long evaluationNanos;
+    }
+
+    @Name("numberle.GameInitialize")
+    @Label("Game Initialize")
+    @Category({"Numberle", "Model"})
+    @StackTrace(false)
+    static final class GameInitialize extends Event {
+        @Label("Dictionary Size")
+        int dictionarySize;
+
+        @Label("Equation Length")
+        int equationLength;
+    }
+
+    @Name("numberle.ViewRepaint")
+    @Label("View Repaint")
+    @Category({"Numberle", "View"})
+    @Description("Guess history or keyboard repaint on the EDT")
+    @StackTrace(false)
+    static final class ViewRepaint extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Items")
+        @Description("History rows painted or keys recolored")
+        int items;
+    }
+}
@@ -0,0 +1,163 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+// JVM-wide game counters and latency histograms. Everything is a striped LongAdder, so recording costs
+// a few nanoseconds and never blocks. Published over JMX as numberle:type=Metrics (watch it in jconsole);
+// -Dnumberle.metrics.dumpSeconds=N also prints a text summary every N seconds.
+public final class NumberleMetrics implements NumberleMetricsMXBean {
+    public static final String DUMP_PROPERTY = "numberle.metrics.dumpSeconds";
+
+    final LongAdder guessesProcessed = new LongAdder();
+    final LongAdder guessesRejectedFormat = new LongAdder();
+    final LongAdder guessesRejectedUnbalanced = new LongAdder();
+    final LongAdder guessesRejectedHardMode = new LongAdder();
+    final LongAdder gamesStarted = new LongAdder();
+    final LongAdder gamesWon = new LongAdder();
+    final LongAdder gamesLost = new LongAdder();
+    final LongAdder hintsRequested = new LongAdder();
+    final LongAdder dictionaryReloads = new LongAdder();
+    final LongAdder dictionaryReloadsRejected = new LongAdder();
+    final LatencyHistogram processInputLatency = new LatencyHistogram();
+    final LatencyHistogram dictionaryLoadTime = new LatencyHistogram();
+
+    private ScheduledExecutorService dumper;
+
+    NumberleMetrics() {
+    }
+
+    private static final class Shared {
+        static final NumberleMetrics INSTANCE = create();
+    }
+
+    public static NumberleMetrics shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static NumberleMetrics create() {
+        NumberleMetrics metrics = new NumberleMetrics();
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(metrics, new ObjectName("numberle:type=Metrics"));
+        } catch (Exception e) {
+            e.printStackTrace(); // metrics still work without JMX
+        }
+        long dumpSeconds = Long.getLong(DUMP_PROPERTY, 0);
+        if (dumpSeconds > 0) {
+            metrics.startDump(dumpSeconds, System.err);
+        }
+        return metrics;
+    }
+
+    // Prints summary() to out every periodSeconds on a daemon thread
+    public synchronized void startDump(long periodSeconds, PrintStream out) {
+        if (dumper != null) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "numberle-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> out.println(summary()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public String summary() {
+        return String.format("guesses=%d rejectedFormat=%d rejectedUnbalanced=%d rejectedHardMode=%d games started=%d won=%d lost=%d hints=%d"
+                        + " dictionaryReloads=%d rejected=%d processInput mean=%dns p50=%dns p99=%dns p99.9=%dns max=%dns dictionaryLoad max=%dms",
+                getGuessesProcessed(), getGuessesRejectedFormat(), getGuessesRejectedUnbalanced(), getGuessesRejectedHardMode(),
+                getGamesStarted(), getGamesWon(), getGamesLost(), getHintsRequested(),
+                getDictionaryReloads(), getDictionaryReloadsRejected(),
+                getProcessInputMeanNanos(), getProcessInputP50Nanos(), getProcessInputP99Nanos(),
+                getProcessInputP999Nanos(), getProcessInputMaxNanos(), getDictionaryLoadMaxMillis());
+    }
+
+    @Override
+    public long getGuessesProcessed() {
+        return guessesProcessed.sum();
+    }
+
+    @Override
+    public long getGuessesRejectedFormat() {
+        return guessesRejectedFormat.sum();
+    }
+
+    @Override
+    public long getGuessesRejectedUnbalanced() {
+        return guessesRejectedUnbalanced.sum();
+    }
+
+    @Override
+    public long getGuessesRejectedHardMode() {
+        return guessesRejectedHardMode.sum();
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    @Override
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    @Override
+    public long getHintsRequested() {
+        return hintsRequested.sum();
+    }
+
+    @Override
+    public long getDictionaryReloads() {
+        return dictionaryReloads.sum();
+    }
+
+    @Override
+    public long getDictionaryReloadsRejected() {
+        return dictionaryReloadsRejected.sum();
+    }
+
+    @Override
+    public long getProcessInputMeanNanos() {
+        return processInputLatency.getMeanNanos();
+    }
+
+    @Override
+    public long getProcessInputP50Nanos() {
+        return processInputLatency.getPercentileNanos(0.5);
+    }
+
+    @Override
+    public long getProcessInputP99Nanos() {
+        return processInputLatency.getPercentileNanos(0.99);
+    }
+
+    @Override
+    public long getProcessInputP999Nanos() {
+        return processInputLatency.getPercentileNanos(0.999);
+    }
+
+    @Override
+    public long getProcessInputMaxNanos() {
+        return processInputLatency.getMaxNanos();
+    }
+
+    @Override
+    public long getDictionaryLoads() {
+        return dictionaryLoadTime.getCount();
+    }
+
+    @Override
+    public long getDictionaryLoadMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dictionaryLoadTime.getMaxNanos());
+    }
+}
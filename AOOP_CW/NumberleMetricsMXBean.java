@@ -0,0 +1,20 @@
+// JMX view of NumberleMetrics, registered as numberle:type=Metrics
+public interface NumberleMetricsMXBean {
+    long getGuessesProcessed();
+    long getGuessesRejectedFormat();
+    long getGuessesRejectedUnbalanced();
+    long getGuessesRejectedHardMode();
+    long getGamesStarted();
+    long getGamesWon();
+    long getGamesLost();
+    long getHintsRequested();
+    long getDictionaryReloads();
+    long getDictionaryReloadsRejected();
+    long getProcessInputMeanNanos();
+    long getProcessInputP50Nanos();
+    long getProcessInputP99Nanos();
+    long getProcessInputP999Nanos();
+    long getProcessInputMaxNanos();
+    long getDictionaryLoads();
+    long getDictionaryLoadMaxMillis();
+}
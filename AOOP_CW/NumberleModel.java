@@ -1,195 +1,251 @@
-import java.util.Random;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Observable;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.Stack;
-public class NumberleModel extends Observable implements INumberleModel {
-    protected List<String> equations = new ArrayList<>();
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+public class NumberleModel implements INumberleModel {
+    protected List<String> equations;
+    private EquationDictionary dictionary;
     private String targetNumber;
-    private StringBuilder currentGuess;
+    private int targetIndex = -1;
+    private GuessResult lastResult;
+    private final List<GuessResult> guessHistory = new ArrayList<>();
+    private final int[] scoreCounts = new int[EquationAlphabet.SIZE]; // scratch space for Feedback.score
     private int remainingAttempts;
     private boolean gameWon;
+    private boolean hardMode;
+    private boolean scheduled;     // new games follow the player's PuzzleSchedule order instead of chance
+    private long scheduledPlayer;
+    private long nextScheduledGame;
+    private final GuessConstraints constraints = new GuessConstraints(1); // what the feedback so far allows
+    private CandidateSet candidates; // created on first query
+    private int candidatesApplied;   // guesses already narrowed into candidates
+    private final GameEventDispatcher events = new GameEventDispatcher();
+    private final NumberleMetrics metrics = NumberleMetrics.shared();
 
     public NumberleModel() {
-        loadEquationsFromFile();
-        assert !equations.isEmpty() : "Equations list must not be empty after loading";
+        this(EquationDictionary.shared());
     }
 
-    private void loadEquationsFromFile() {
-        try (BufferedReader reader = new BufferedReader(new FileReader("E:\\AOOP\\AOOP_CW\\equations.txt"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                equations.add(line.trim());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            equations.add("1+2+3=6"); // Default equation in case of file read error
-        }
+    // Models only keep a reference to the shared, immutable dictionary, so creating one is free
+    public NumberleModel(EquationDictionary dictionary) {
+        this.dictionary = dictionary;
+        equations = dictionary.asList();
+        assert !equations.isEmpty() : "Equations list must not be empty after loading";
     }
 
     @Override
     public void initialize() {
         assert equations != null && !equations.isEmpty() : "Equations list must not be empty before initialization";
+        refreshDictionary();
+        if (equations.isEmpty()) {
+            initialize(-1);
+        } else if (scheduled) {
+            initialize(PuzzleSchedule.shared().playerGame(scheduledPlayer, nextScheduledGame++, equations.size()));
+        } else {
+            initialize(ThreadLocalRandom.current().nextInt(equations.size()));
+        }
+    }
+
+    // Starts the puzzle everyone gets on that day, see PuzzleSchedule
+    public void initializeDaily(LocalDate day) {
+        refreshDictionary();
+        initialize(PuzzleSchedule.shared().daily(day, equations.size()));
+    }
+
+    // From now on initialize() and startNewGame() play the player's games in their PuzzleSchedule order,
+    // starting with game number nextGame. Only that number needs to be kept to carry on later.
+    public void followSchedule(long playerId, long nextGame) {
+        scheduled = true;
+        scheduledPlayer = playerId;
+        nextScheduledGame = nextGame;
+    }
+
+    // Game number the next scheduled game will be
+    public long getNextScheduledGame() {
+        return nextScheduledGame;
+    }
 
-        Random rand = new Random();
-        targetNumber = !equations.isEmpty() ? equations.get(rand.nextInt(equations.size())) : "1+2+3=6";
-        currentGuess = new StringBuilder("       ");
+    // A new game picks from the newest reload of the dictionary; games in progress keep theirs
+    private void refreshDictionary() {
+        EquationDictionary latest = dictionary.latest();
+        if (latest != dictionary && latest.length() == dictionary.length()) {
+            useDictionary(latest);
+        }
+    }
+
+    // Starts a game on a chosen dictionary entry, e.g. a scripted or seeded game
+    public void initialize(int targetIndex) {
+        assert targetIndex < equations.size() : "Target index out of range";
+        NumberleEvents.GameInitialize event = new NumberleEvents.GameInitialize();
+        event.begin();
+
+        this.targetIndex = targetIndex;
+        targetNumber = targetIndex >= 0 ? equations.get(targetIndex) : "1+2+3=6";
+        lastResult = null;
+        guessHistory.clear();
+        constraints.reset(targetNumber.length());
+        if (candidates != null) {
+            candidates.reset();
+        }
+        candidatesApplied = 0;
         remainingAttempts = MAX_ATTEMPTS;
         gameWon = false;
-        setChanged();
-        notifyObservers();
+        metrics.gamesStarted.increment();
+        if (events.hasListeners()) {
+            events.publish(new GameEvent.GameStarted(remainingAttempts));
+        }
+        if (event.shouldCommit()) {
+            event.dictionarySize = equations.size();
+            event.equationLength = targetNumber.length();
+            event.commit();
+        }
 
         assert targetNumber != null && !targetNumber.isEmpty() : "Target number must be initialized";
-        assert currentGuess.length() == 7 : "Current guess must be initialized to 7 spaces";
+        assert lastResult == null : "No guess must be recorded at initialization";
         assert remainingAttempts == MAX_ATTEMPTS : "Remaining attempts must be initialized to max attempts";
         assert !gameWon : "Game must not be won at initialization";
     }
 
+    // Continues a game parked in a SessionStore: the same target and already scored guesses. The game
+    // and its guesses were counted and published when they were first played, so this does neither.
+    // The index is dropped (-1) if the dictionary was reloaded since and no longer has the target there.
+    void restore(String target, int targetIndex, List<GuessResult> history) {
+        assert target.length() == dictionary.length() : "Target has the wrong length";
+        assert history.size() <= MAX_ATTEMPTS : "More guesses than attempts";
+        boolean indexed = targetIndex >= 0 && targetIndex < equations.size() && equations.get(targetIndex).equals(target);
+        this.targetIndex = indexed ? targetIndex : -1;
+        targetNumber = target;
+        guessHistory.clear();
+        guessHistory.addAll(history);
+        lastResult = history.isEmpty() ? null : history.get(history.size() - 1);
+        constraints.reset(targetNumber.length());
+        for (GuessResult result : history) {
+            constraints.update(result);
+        }
+        if (candidates != null) {
+            candidates.reset();
+        }
+        candidatesApplied = 0;
+        remainingAttempts = MAX_ATTEMPTS - history.size();
+        gameWon = lastResult != null && lastResult.isCorrect();
+    }
+
     @Override
     public boolean processInput(String input) {
         assert input != null : "Input cannot be null";
+        long start = System.nanoTime();
+        NumberleEvents.GuessProcessed event = new NumberleEvents.GuessProcessed();
+        boolean traced = event.isEnabled(); // phase timings only while a recording wants them
+        event.begin();
+        long phase = traced ? System.nanoTime() : 0;
+
+        // A single bit lookup when the precomputed index is available, otherwise parse the guess
+        boolean wellFormed = isValidInput(input, targetNumber.length());
+        long validated = traced ? System.nanoTime() : 0;
+        ValidityIndex index = ValidityIndex.shared();
+        boolean valid = wellFormed && (index != null && index.getLength() == input.length()
+                ? index.isValid(input)
+                : evaluateEquation(input));
+        if (traced) {
+            event.validationNanos = validated - phase;
+            event.evaluationNanos = wellFormed ? System.nanoTime() - validated : 0;
+        }
+        if (!valid) {
+            (wellFormed ? metrics.guessesRejectedUnbalanced : metrics.guessesRejectedFormat).increment();
+            if (events.hasListeners()) {
+                events.publish(new GameEvent.GuessRejected(input, "Invalid Input or Equation does not balance"));
+            }
+            commit(event, wellFormed ? "REJECTED_UNBALANCED" : "REJECTED_FORMAT");
+            metrics.processInputLatency.record(System.nanoTime() - start);
+            return false;
+        }
 
-        if (!isValidInput(input) || !evaluateEquation(input)) {
-            setChanged();
-            notifyObservers("Invalid Input or Equation does not balance");
+        // Hard mode: the guess has to respect everything the earlier feedback revealed
+        String violation = hardMode && input.length() == constraints.getLength() ? constraints.violation(input) : null;
+        if (violation != null) {
+            metrics.guessesRejectedHardMode.increment();
+            if (events.hasListeners()) {
+                events.publish(new GameEvent.GuessRejected(input, "Hard mode: " + violation));
+            }
+            commit(event, "REJECTED_HARD_MODE");
+            metrics.processInputLatency.record(System.nanoTime() - start);
             return false;
         }
 
         remainingAttempts--;
         updateGuessAndCheckWin(input);
+        metrics.guessesProcessed.increment();
+        if (isGameOver()) {
+            (gameWon ? metrics.gamesWon : metrics.gamesLost).increment();
+        }
 
-        setChanged();
-        notifyObservers();
+        if (events.hasListeners()) {
+            events.publish(new GameEvent.GuessAccepted(lastResult, remainingAttempts));
+            if (isGameOver()) {
+                events.publish(new GameEvent.GameOver(gameWon, targetNumber));
+            }
+        }
 
+        commit(event, gameWon ? "WON" : isGameOver() ? "LOST" : "ACCEPTED");
+        metrics.processInputLatency.record(System.nanoTime() - start);
         assert remainingAttempts >= 0 : "Remaining attempts should never be negative";
         return true;
     }
-    private void updateGuessAndCheckWin(String input) {
-        int[] charCounts = new int[256];
-        for (char c : targetNumber.toCharArray()) {
-            charCounts[c]++;
-        }
-
-
-        boolean isCorrect = true;
-        char[] feedbackChars = new char[targetNumber.length() * 3]; // Stores characters, status symbols, and delimiters
-
-        // First process and mark all the correct characters
-        for (int i = 0; i < targetNumber.length(); i++) {
-            char inChar = input.charAt(i);
-            char targetChar = targetNumber.charAt(i);
-            int baseIndex = i * 3;
-            feedbackChars[baseIndex] = inChar;
-            if (inChar == targetChar) {
-                feedbackChars[baseIndex + 1] = '✓';
-                charCounts[inChar]--;
-            } else {
-                isCorrect = false;
-                feedbackChars[baseIndex + 1] = ' ';  // Leave blank for later
-            }
-            feedbackChars[baseIndex + 2] = ' ';  // Add separator
-        }
-
-        // Handles and marks characters in the wrong position
-        for (int i = 0; i < feedbackChars.length; i += 3) {
-            if (feedbackChars[i + 1] == ' ') { // Only unmarked characters are processed
-                char inChar = feedbackChars[i];
-                if (charCounts[inChar] > 0) {
-                    feedbackChars[i + 1] = '?'; // Position error
-                    charCounts[inChar]--;
-                } else {
-                    feedbackChars[i + 1] = 'X'; // Dead wrong（unused）
-                }
-            }
-        }
 
-        currentGuess = new StringBuilder(new String(feedbackChars)); // Update the status of the current guess
-        gameWon = isCorrect; // Update game win status
-        assert currentGuess != null : "Current guess must be updated";
-        assert gameWon == isCorrect : "Game won state must correctly reflect the accuracy of the guess";
+    private static void commit(NumberleEvents.GuessProcessed event, String outcome) {
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
     }
-
-
-
-    private boolean isValidInput(String input) {
-        return input.matches("[0-9+\\-*/=]{7}");
+    private void updateGuessAndCheckWin(String input) {
+        int feedback = Feedback.score(input, targetNumber, scoreCounts);
+        lastResult = new GuessResult(input, feedback);
+        guessHistory.add(lastResult);
+        constraints.update(lastResult);
+        gameWon = lastResult.isCorrect(); // Update game win status
+        assert lastResult.length() == targetNumber.length() : "Every position of the guess must be scored";
     }
 
-    // Updated to handle more complex expressions
-    private boolean evaluateEquation(String equation) {
-        assert equation != null && equation.contains("=") : "Equation must not be null and must contain '=' symbol";
+    // Rules used both for guesses and for building the ValidityIndex
+    static boolean isValidEquation(String input) {
+        return isValidInput(input, input.length()) && evaluateEquation(input);
+    }
 
-        String[] parts = equation.split("=");
-        if (parts.length != 2) return false;
-        try {
-            double left = eval(parts[0]);
-            double right = eval(parts[1]);
-            boolean result = Math.abs(left - right) < 0.001;
-            return result;
-        } catch (Exception e) {
+    private static boolean isValidInput(String input, int length) {
+        if (input.length() != length) {
             return false;
         }
-    }
-
-    private double eval(String expression) {
-        assert expression != null : "Expression cannot be null for evaluation";
-
-        Stack<Double> numbers = new Stack<>();
-        Stack<Character> operations = new Stack<>();
-
-        for (int i = 0; i < expression.length(); i++) {
-            char c = expression.charAt(i);
-            if (Character.isDigit(c)) {
-                int num = 0;
-                while (i < expression.length() && Character.isDigit(expression.charAt(i))) {
-                    num = num * 10 + (expression.charAt(i) - '0');
-                    i++;
-                }
-                i--;
-                numbers.push((double) num);
-            } else if (c == '+' || c == '-' || c == '*' || c == '/') {
-                while (!operations.isEmpty() && precedence(operations.peek()) >= precedence(c)) {
-                    double output = applyOp(operations.pop(), numbers.pop(), numbers.pop());
-                    numbers.push(output);
-                }
-                operations.push(c);
+        for (int i = 0; i < input.length(); i++) {
+            if (EquationAlphabet.indexOf(input.charAt(i)) < 0) {
+                return false;
             }
         }
+        return true;
+    }
 
-        while (!operations.isEmpty()) {
-            double output = applyOp(operations.pop(), numbers.pop(), numbers.pop());
-            numbers.push(output);
-        }
+    // Exact rational evaluation, see EquationEvaluator
+    private static boolean evaluateEquation(String equation) {
+        return EquationEvaluator.balances(equation);
+    }
 
-        assert !numbers.isEmpty() : "Number stack should not be empty after evaluation";
-        return numbers.pop();
+    // Listeners run on the thread that changes the model
+    @Override
+    public void addListener(GameListener listener) {
+        events.addListener(listener);
     }
 
-    private int precedence(char op) {
-        if (op == '+' || op == '-') {
-            return 1;
-        }
-        if (op == '*' || op == '/') {
-            return 2;
-        }
-        return -1;
+    // Listeners run on executor, with bursts of events delivered in one task
+    @Override
+    public void addListener(GameListener listener, Executor executor) {
+        events.addListener(listener, executor);
     }
 
-    private double applyOp(char op, double b, double a) {
-        assert op == '+' || op == '-' || op == '*' || op == '/' : "Operator must be a valid mathematical operator";
-        switch (op) {
-            case '+': return a + b;
-            case '-': return a - b;
-            case '*': return a * b;
-            case '/':
-                assert b != 0 : "Division by zero is not permitted";
-                return a / b;
-            default:
-                throw new IllegalStateException("Unexpected operator: " + op);
-        }
+    @Override
+    public void removeListener(GameListener listener) {
+        events.removeListener(listener);
     }
 
     // Check if the game is over
@@ -210,10 +266,92 @@ public class NumberleModel extends Observable implements INumberleModel {
         return targetNumber;
     }
 
-    // Get the current guess
+    @Override
+    public int getRemainingCandidateCount() {
+        return candidates().count();
+    }
+
+    @Override
+    public List<String> getRemainingCandidates() {
+        return candidates().equations();
+    }
+
+    // Narrows by the guesses made since the last query. Models nobody asks (batch runs, server sessions)
+    // never allocate the bitset, and a query after every guess costs one narrowing step each time.
+    private CandidateSet candidates() {
+        if (candidates == null) {
+            candidates = new CandidateSet(dictionary);
+        }
+        while (candidatesApplied < guessHistory.size()) {
+            candidates.narrow(guessHistory.get(candidatesApplied++));
+        }
+        return candidates;
+    }
+
+    // Plays the following games with equations of another length. The dictionary is built on first use
+    // and shared through EquationLibrary; call it between games, before initialize() or startNewGame().
+    @Override
+    public void setEquationLength(int length) {
+        if (length != dictionary.length()) {
+            useDictionary(EquationLibrary.shared().get(length));
+        }
+    }
+
+    private void useDictionary(EquationDictionary next) {
+        dictionary = next;
+        equations = next.asList();
+        candidates = null;
+    }
+
+    @Override
+    public int getEquationLength() {
+        return dictionary.length();
+    }
+
+    @Override
+    public void setHardMode(boolean hardMode) {
+        this.hardMode = hardMode;
+    }
+
+    @Override
+    public boolean isHardMode() {
+        return hardMode;
+    }
+
+    // Position of the target in the dictionary, -1 before the first game or for a resumed game whose
+    // target is no longer in the reloaded dictionary
+    public int getTargetIndex() {
+        return targetIndex;
+    }
+
+    // Get the current guess in the legacy "symbol, status, space" text form, built on demand
     @Override
     public StringBuilder getCurrentGuess() {
-        return currentGuess;
+        return new StringBuilder(lastResult == null ? " ".repeat(targetNumber.length()) : lastResult.toString());
+    }
+
+    // Get the scored last guess, or null before the first valid guess of a game
+    @Override
+    public GuessResult getLastResult() {
+        return lastResult;
+    }
+
+    // Get every scored guess of the current game, oldest first
+    @Override
+    public List<GuessResult> getGuessHistory() {
+        return Collections.unmodifiableList(guessHistory);
+    }
+
+    // Get the equations a target is picked from
+    @Override
+    public List<String> getEquations() {
+        return equations;
+    }
+
+    // Get the dictionary the equations come from
+    @Override
+    public EquationDictionary getDictionary() {
+        return dictionary;
     }
 
     // Get the remaining attempts
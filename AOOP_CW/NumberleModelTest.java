@@ -1,5 +1,7 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 class NumberleModelTest {
@@ -59,4 +61,103 @@ class NumberleModelTest {
         assertEquals(6, model.getRemainingAttempts(), "There should be 6 remaining attempts left.");
     }
 
+    @Test
+    void testExactEvaluationRules() {
+        assertTrue(model.processInput("6/4*2=3"), "Fractions should be evaluated exactly.");
+        assertFalse(model.processInput("3+004=7"), "Operands with leading zeros should be rejected.");
+        assertFalse(model.processInput("1/0+1=5"), "Division by zero should be rejected.");
+        assertFalse(model.processInput("10-4=6="), "An equation must contain exactly one '=' between two expressions.");
+        assertFalse(model.processInput("-1+2=1"), "Unary minus should be rejected.");
+        assertEquals(5, model.getRemainingAttempts(), "Only the balanced equation should use an attempt.");
+    }
+
+    @Test
+    void testGuessResultReportsStates() {
+        assertNull(model.getLastResult(), "There should be no result before the first guess.");
+        String target = model.getTargetNumber();
+        assertTrue(model.processInput(target), "The target equation should be accepted.");
+        GuessResult result = model.getLastResult();
+        for (int i = 0; i < result.length(); i++) {
+            assertEquals(Feedback.CORRECT, result.getState(i), "Every position of the target should be correct.");
+            assertEquals(Feedback.CORRECT, result.getKeyState(result.getSymbol(i)), "Every key of the target should be correct.");
+        }
+        assertTrue(result.isCorrect() && model.isGameWon(), "Guessing the target should win the game.");
+    }
+
+    @Test
+    void testTypedEvents() {
+        List<GameEvent> events = new ArrayList<>();
+        model.addListener(new GameListener() {
+            @Override
+            public void guessAccepted(GameEvent.GuessAccepted event) {
+                events.add(event);
+            }
+
+            @Override
+            public void guessRejected(GameEvent.GuessRejected event) {
+                events.add(event);
+            }
+        });
+        model.processInput("1+2+3=7");
+        model.processInput("1+2+3=6");
+        assertEquals(2, events.size(), "Synchronous listeners should see every event immediately.");
+        assertTrue(events.get(0) instanceof GameEvent.GuessRejected, "An unbalanced guess should be rejected.");
+        GameEvent.GuessAccepted accepted = (GameEvent.GuessAccepted) events.get(1);
+        assertEquals(5, accepted.getRemainingAttempts());
+        assertSame(model.getLastResult(), accepted.getResult(), "The event should carry the scored guess.");
+    }
+
+    @Test
+    void testHardModeRejectsInconsistentGuesses() {
+        NumberleModel hard = new NumberleModel(EquationDictionary.of(List.of("1+2+3=6")));
+        List<String> reasons = new ArrayList<>();
+        hard.addListener(new GameListener() {
+            @Override
+            public void guessRejected(GameEvent.GuessRejected event) {
+                reasons.add(event.getReason());
+            }
+        });
+        hard.setHardMode(true);
+        hard.initialize();
+        assertTrue(hard.processInput("3+2+1=6"), "Anything goes before the first feedback.");
+        assertFalse(hard.processInput("4+2+0=6"), "Orange symbols must be used again.");
+        assertFalse(hard.processInput("3+2+1=6"), "Orange symbols must move.");
+        assertFalse(hard.processInput("1-2+3=2"), "Green symbols must stay.");
+        assertEquals(List.of("Hard mode: guess must contain 1", "Hard mode: 3 cannot be at position 1",
+                "Hard mode: position 2 must be +"), reasons);
+        assertEquals(5, hard.getRemainingAttempts(), "Rejected guesses must not cost an attempt.");
+        assertTrue(hard.processInput("1+2+3=6"));
+        assertTrue(hard.isGameWon());
+    }
+
+    @Test
+    void testRemainingCandidatesTrackFeedback() {
+        assertEquals(model.getEquations().size(), model.getRemainingCandidateCount(), "Every equation is possible before any guess.");
+        String guess = model.getEquations().get(0);
+        assertTrue(model.processInput(guess));
+        int feedback = model.getLastResult().getFeedback();
+        List<String> expected = new ArrayList<>();
+        for (String equation : model.getEquations()) {
+            if (Feedback.score(guess, equation, new int[EquationAlphabet.SIZE]) == feedback) {
+                expected.add(equation);
+            }
+        }
+        assertEquals(expected, model.getRemainingCandidates(), "The bitset must agree with rescoring every equation.");
+        assertEquals(expected.size(), model.getRemainingCandidateCount());
+        assertTrue(model.getRemainingCandidates().contains(model.getTargetNumber()));
+    }
+
+    @Test
+    void testVariableLengthGames() {
+        model.setEquationLength(5);
+        model.initialize();
+        assertEquals(5, model.getTargetNumber().length(), "The target should have the chosen length.");
+        assertFalse(model.processInput("1+2+3=6"), "Guesses must match the game length.");
+        assertTrue(model.processInput(model.getEquations().get(0)));
+        assertSame(EquationLibrary.shared().get(5).asList(), model.getEquations(), "Dictionaries are shared per length.");
+        model.setEquationLength(7);
+        model.initialize();
+        assertEquals(7, model.getTargetNumber().length());
+    }
+
 }
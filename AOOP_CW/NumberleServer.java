@@ -0,0 +1,336 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hosts many concurrent games over a line-based protocol on loopback TCP. Every session wraps its own
+// NumberleModel; all of them share one EquationDictionary. Sessions idle for parkAfterMillis are parked
+// in an off-heap SessionStore and get a model again on their next command; sessions idle for
+// idleTimeoutMillis are dropped.
+//
+//   START [length]         -> OK <id> <length> <attempts>
+//   DAILY [length]         -> OK <id> <length> <attempts>   on today's (UTC) puzzle, the same for everyone
+//   GUESS <id> <equation>  -> OK <feedback> <remaining> <PLAYING|WON|LOST> [target]
+//   STATE <id>             -> OK <remaining> <PLAYING|WON|LOST> [target]
+//   END <id>               -> OK
+//   QUIT                   -> closes the connection
+// Feedback has one letter per position: G correct, O wrong position, X not in the equation.
+// Errors are answered with "ERR <reason>" and leave the connection open.
+public class NumberleServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7007;
+
+    private final int port;
+    private final EquationDictionary dictionary;
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+    private final long parkAfterMillis;
+    private final SessionStore parked = new SessionStore();
+    private final Semaphore connectionPermits;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger reservedSessions = new AtomicInteger(); // live sessions plus ones being started
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService connections = connectionExecutor();
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "numberle-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    private static final class Session {
+        final long id;
+        // Guarded by the session: the live model, or null while the game is parked in slot
+        NumberleModel model;
+        int slot = -1;
+        // Guarded by the session: set once by END or eviction; commands that found the session before
+        // then answer as if it never existed
+        boolean removed;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Session(long id, NumberleModel model) {
+            this.id = id;
+            this.model = model;
+        }
+    }
+
+    public NumberleServer(int port, EquationDictionary dictionary, int maxConnections, int maxSessions,
+                          long idleTimeoutMillis) {
+        this(port, dictionary, maxConnections, maxSessions, idleTimeoutMillis, idleTimeoutMillis);
+    }
+
+    public NumberleServer(int port, EquationDictionary dictionary, int maxConnections, int maxSessions,
+                          long idleTimeoutMillis, long parkAfterMillis) {
+        this.port = port;
+        this.dictionary = dictionary;
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.parkAfterMillis = parkAfterMillis;
+        this.connectionPermits = new Semaphore(maxConnections);
+    }
+
+    // One virtual thread per connection when the JVM has them (JDK 21+), a cached platform pool otherwise
+    private static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "numberle-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        running = true;
+        long sweep = Math.max(1, Math.min(idleTimeoutMillis, parkAfterMillis) / 2);
+        evictor.scheduleAtFixedRate(this::evictIdleSessions, sweep, sweep, TimeUnit.MILLISECONDS);
+        Thread acceptor = new Thread(this::acceptLoop, "numberle-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    // The bound port, useful when the server was created with port 0
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    // Sessions whose game is currently parked off-heap
+    public int parkedCount() {
+        return parked.size();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                // Backpressure: beyond the connection limit new clients are told to retry later
+                if (!connectionPermits.tryAcquire()) {
+                    try (Socket rejected = socket) {
+                        rejected.getOutputStream().write("ERR busy\n".getBytes(StandardCharsets.US_ASCII));
+                    }
+                    continue;
+                }
+                connections.execute(() -> {
+                    try {
+                        serve(socket);
+                    } finally {
+                        connectionPermits.release();
+                    }
+                });
+            } catch (IOException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII))) {
+            client.setSoTimeout((int) Math.min(Integer.MAX_VALUE, idleTimeoutMillis));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                out.write(handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (SocketTimeoutException | SocketException e) {
+            // Idle or reset connections are simply dropped
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Executes one protocol command and returns the response line
+    String handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        String command = parts[0].toUpperCase();
+        if (command.equals("START") || command.equals("DAILY")) {
+            return startSession(parts.length > 1 ? parts[1] : null, command.equals("DAILY"));
+        }
+        if (parts.length < 2) {
+            return "ERR usage";
+        }
+        Session session;
+        try {
+            session = sessions.get(Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            return "ERR bad session id";
+        }
+        if (session == null) {
+            return "ERR unknown session";
+        }
+        session.lastUsed = System.currentTimeMillis();
+        switch (command) {
+            case "GUESS":
+                return parts.length == 3 ? guess(session, parts[2]) : "ERR usage";
+            case "STATE":
+                synchronized (session) {
+                    return session.removed ? "ERR unknown session" : "OK " + status(active(session));
+                }
+            case "END":
+                synchronized (session) {
+                    if (session.removed) {
+                        return "ERR unknown session";
+                    }
+                    remove(session);
+                }
+                sessions.remove(session.id);
+                return "OK";
+            default:
+                return "ERR unknown command";
+        }
+    }
+
+    private String startSession(String length, boolean daily) {
+        if (reservedSessions.incrementAndGet() > maxSessions) {
+            reservedSessions.decrementAndGet();
+            return "ERR too many sessions";
+        }
+        NumberleModel model = new NumberleModel(dictionary);
+        if (length != null) {
+            // Other lengths come from the shared library, so only lengths in play take memory
+            try {
+                model.setEquationLength(Integer.parseInt(length));
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                reservedSessions.decrementAndGet();
+                return "ERR length";
+            }
+        }
+        if (daily) {
+            model.initializeDaily(LocalDate.now(ZoneOffset.UTC));
+        } else {
+            model.initialize();
+        }
+        Session session = new Session(nextId.getAndIncrement(), model);
+        sessions.put(session.id, session);
+        return "OK " + session.id + " " + model.getEquationLength() + " " + INumberleModel.MAX_ATTEMPTS;
+    }
+
+    private String guess(Session session, String equation) {
+        synchronized (session) {
+            if (session.removed) {
+                return "ERR unknown session";
+            }
+            NumberleModel model = active(session);
+            if (model.isGameOver()) {
+                return "ERR game over";
+            }
+            if (!model.processInput(equation)) {
+                return "ERR invalid";
+            }
+            return "OK " + model.getLastResult().toLetters() + " " + status(model);
+        }
+    }
+
+    private static String status(NumberleModel model) {
+        if (model.isGameWon()) {
+            return model.getRemainingAttempts() + " WON " + model.getTargetNumber();
+        }
+        if (model.isGameOver()) {
+            return model.getRemainingAttempts() + " LOST " + model.getTargetNumber();
+        }
+        return model.getRemainingAttempts() + " PLAYING";
+    }
+
+    // Called holding the session, at most once: frees its parked game and its place among the sessions
+    private void remove(Session session) {
+        session.removed = true;
+        discard(session);
+        reservedSessions.decrementAndGet();
+    }
+
+    // Called holding the session: brings a parked game back into a fresh model
+    private NumberleModel active(Session session) {
+        if (session.model == null) {
+            NumberleModel model = new NumberleModel(dictionary);
+            parked.resume(session.slot, model);
+            session.model = model;
+            session.slot = -1;
+        }
+        return session.model;
+    }
+
+    // Called holding the session
+    private void discard(Session session) {
+        if (session.model == null && session.slot >= 0) {
+            parked.discard(session.slot);
+            session.slot = -1;
+        }
+    }
+
+    private void evictIdleSessions() {
+        long now = System.currentTimeMillis();
+        long dropBefore = now - idleTimeoutMillis;
+        long parkBefore = now - parkAfterMillis;
+        sessions.values().removeIf(session -> {
+            synchronized (session) {
+                if (session.removed) {
+                    return true; // ended, END takes it out of the map too
+                }
+                if (session.lastUsed < dropBefore) {
+                    remove(session);
+                    return true;
+                }
+                if (session.model != null && session.lastUsed < parkBefore) {
+                    session.slot = parked.suspend(session.model);
+                    session.model = null;
+                }
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        evictor.shutdownNow();
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        connections.shutdownNow();
+    }
+
+    // Usage: java NumberleServer [port]
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        NumberleServer server = new NumberleServer(port, EquationDictionary.shared(), 10_000, 1_000_000,
+                TimeUnit.MINUTES.toMillis(30), TimeUnit.MINUTES.toMillis(1));
+        server.start();
+        DictionaryWatcher.shared(); // new sessions pick up edits to the equation file
+        System.out.println("Numberle server listening on " + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort());
+        Thread.currentThread().join();
+    }
+}
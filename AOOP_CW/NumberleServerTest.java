@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberleServerTest {
+
+    @Test
+    void testGameOverLoopback() throws Exception {
+        try (NumberleServer server = new NumberleServer(0, EquationDictionary.shared(), 4, 10, 60_000)) {
+            server.start();
+            try (NumberleClient client = new NumberleClient(server.getPort())) {
+                long session = client.start();
+                assertEquals(1, server.sessionCount(), "START should create one session.");
+                assertEquals("ERR invalid", client.guess(session, "1+2+3=7"), "Unbalanced guesses should be rejected.");
+
+                assertEquals("OK 6 PLAYING", client.state(session), "A new game should have all attempts left.");
+                String response = client.guess(session, "1+2+3=6");
+                assertTrue(response.startsWith("OK "), "Valid guesses should be scored.");
+                assertTrue(response.matches("OK [GOX]{7} 5 (PLAYING|WON .*)"), "Unexpected response: " + response);
+            }
+        }
+    }
+
+    @Test
+    void testConnectionLimitAnswersBusy() throws Exception {
+        try (NumberleServer server = new NumberleServer(0, EquationDictionary.shared(), 1, 10, 60_000)) {
+            server.start();
+            try (NumberleClient first = new NumberleClient(server.getPort());
+                 NumberleClient second = new NumberleClient(server.getPort())) {
+                first.start();
+                assertEquals("ERR busy", second.send("START"), "Connections over the limit should be turned away.");
+            }
+        }
+    }
+
+    @Test
+    void testIdleSessionsAreParkedAndResumed() throws Exception {
+        try (NumberleServer server = new NumberleServer(0, EquationDictionary.shared(), 4, 10, 60_000, 50)) {
+            server.start();
+            try (NumberleClient client = new NumberleClient(server.getPort())) {
+                long session = client.start();
+                assertTrue(client.guess(session, "1+2+3=6").startsWith("OK "));
+                String before = client.state(session);
+                long deadline = System.currentTimeMillis() + 5_000;
+                while (server.parkedCount() == 0 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(1, server.parkedCount(), "An idle session should be parked.");
+                assertEquals(before, client.state(session), "A parked game resumes where it left off.");
+                assertEquals(0, server.parkedCount());
+                assertEquals(1, server.sessionCount());
+            }
+        }
+    }
+
+    @Test
+    void testEndRacingGuessNeverFails() throws Exception {
+        // Parking after 1 ms makes most guesses resume a parked game while END discards it
+        try (NumberleServer server = new NumberleServer(0, EquationDictionary.shared(), 4, 10, 60_000, 1)) {
+            server.start();
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                for (int i = 0; i < 500; i++) {
+                    long session = Long.parseLong(server.handle("START").split(" ")[1]);
+                    if (i % 2 == 0) {
+                        Thread.sleep(2);
+                    }
+                    CountDownLatch go = new CountDownLatch(1);
+                    Future<String> guess = pool.submit(() -> {
+                        go.await();
+                        return server.handle("GUESS " + session + " 1+2+3=6");
+                    });
+                    Future<String> end = pool.submit(() -> {
+                        go.await();
+                        return server.handle("END " + session);
+                    });
+                    go.countDown();
+                    assertEquals("OK", end.get(5, TimeUnit.SECONDS), "END should always find the session.");
+                    String response = guess.get(5, TimeUnit.SECONDS);
+                    assertTrue(response.startsWith("OK ") || response.equals("ERR unknown session"), "Unexpected response: " + response);
+                    assertEquals("ERR unknown session", server.handle("STATE " + session), "An ended session is gone.");
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            assertEquals(0, server.sessionCount());
+            assertEquals(0, server.parkedCount(), "Ended games must not stay parked.");
+        }
+    }
+
+    @Test
+    void testSessionLimitHoldsUnderConcurrentStarts() throws Exception {
+        try (NumberleServer server = new NumberleServer(0, EquationDictionary.shared(), 4, 10, 60_000)) {
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch go = new CountDownLatch(1);
+            AtomicInteger started = new AtomicInteger();
+            List<Future<?>> starts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                starts.add(pool.submit(() -> {
+                    go.await();
+                    if (server.handle("START").startsWith("OK ")) {
+                        started.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> start : starts) {
+                start.get(5, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+            assertEquals(10, started.get(), "Exactly maxSessions starts should succeed.");
+            assertEquals(10, server.sessionCount());
+            assertEquals("ERR too many sessions", server.handle("START"));
+            assertEquals("OK", server.handle("END 1"));
+            assertTrue(server.handle("START").startsWith("OK "), "Ending a session frees its place.");
+        }
+    }
+}
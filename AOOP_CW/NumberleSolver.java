@@ -0,0 +1,284 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+// Suggests the dictionary equation that maximises the expected information of the next guess,
+// i.e. the entropy of the feedback partition over the candidates still consistent with the history.
+//
+// Scoring every equation against every candidate is O(N*R), which is minutes for the length-8 and hours
+// for the length-9 dictionary. A hint therefore scores at most WORK_LIMIT pairs: the partition is measured
+// on an even sample of at most MAX_TARGETS candidates, and the guesses tried are the candidates plus an
+// even sample of the other equations. Guesses not scored within -Dnumberle.hint.budgetMillis are skipped.
+public class NumberleSolver {
+    public static final String BUDGET_PROPERTY = "numberle.hint.budgetMillis";
+    private static final long MATRIX_LIMIT = 1L << 26; // cached patterns, 128 MB as chars
+    private static final long WORK_LIMIT = 1L << 22;   // guess/candidate pairs scored per hint
+    private static final int MAX_TARGETS = 2048;       // candidates the partition is measured on
+    private static final int LEAF_GUESSES = 32;        // fork-join split threshold
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[EquationAlphabet.SIZE]);
+
+    private final long budgetNanos = Long.getLong(BUDGET_PROPERTY, 200) * 1_000_000;
+    private final String[] equations;
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    private final int length;
+    private final int patternCount;   // 3^length feedback patterns
+    private volatile char[] matrix;   // guess-major feedback patterns, built on first use
+    private final AtomicBoolean buildingMatrix = new AtomicBoolean();
+    private volatile String opening;  // best first guess, independent of the game, kept once fully scored
+    private volatile StrategyTree strategy; // offline tree for this dictionary, followed while the game is on it
+
+    public NumberleSolver(List<String> equations) {
+        if (equations.isEmpty()) {
+            throw new IllegalArgumentException("The dictionary must not be empty");
+        }
+        this.equations = equations.toArray(new String[0]);
+        this.length = this.equations[0].length();
+        int patterns = 1;
+        for (int i = 0; i < length; i++) {
+            patterns *= 3;
+        }
+        this.patternCount = patterns;
+        for (int i = 0; i < this.equations.length; i++) {
+            if (this.equations[i].length() != length) {
+                throw new IllegalArgumentException("All equations must have the same length: " + this.equations[i]);
+            }
+            indexOf.putIfAbsent(this.equations[i], i);
+        }
+    }
+
+    // Solvers are expensive to warm up, so every dictionary keeps one with its opening and pattern matrix
+    public static NumberleSolver forDictionary(EquationDictionary dictionary) {
+        return dictionary.solver();
+    }
+
+    // Plays the tree before scoring anything; a tree built for another dictionary is ignored
+    public void useStrategyTree(StrategyTree tree) {
+        if (tree != null && tree.matches(Arrays.asList(equations))) {
+            strategy = tree;
+        }
+    }
+
+    // Next guess for a game with the given history, or null if no equation fits the feedback
+    public String nextGuess(List<GuessResult> history) {
+        StrategyTree tree = strategy;
+        if (tree != null) {
+            String planned = tree.nextGuess(Arrays.asList(equations), history);
+            if (planned != null) {
+                return planned;
+            }
+        }
+        if (history.isEmpty()) {
+            String known = opening;
+            return known != null ? known : equations[bestGuess(IntStream.range(0, equations.length).toArray(), true)];
+        }
+        int[] remaining = remainingCandidates(history);
+        if (remaining.length == 0) {
+            return null;
+        }
+        if (remaining.length <= 2) {
+            return equations[remaining[0]]; // nothing can do better than guessing a candidate
+        }
+        return equations[bestGuess(remaining, false)];
+    }
+
+    boolean hasOpening() {
+        return opening != null;
+    }
+
+    // Indexes of the equations that would have produced exactly the given feedback
+    public int[] remainingCandidates(List<GuessResult> history) {
+        int steps = history.size();
+        int[] guesses = new int[steps];
+        int[] patterns = new int[steps];
+        for (int i = 0; i < steps; i++) {
+            GuessResult result = history.get(i);
+            guesses[i] = indexOf.getOrDefault(result.getGuess(), -1);
+            patterns[i] = patternIndex(result.getFeedback());
+        }
+        return IntStream.range(0, equations.length).parallel().filter(candidate -> {
+            for (int i = 0; i < steps; i++) {
+                int pattern = guesses[i] >= 0
+                        ? pattern(guesses[i], candidate)
+                        : patternIndex(Feedback.score(history.get(i).getGuess(), equations[candidate], SCRATCH.get()));
+                if (pattern != patterns[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }).toArray();
+    }
+
+    public String getEquation(int index) {
+        return equations[index];
+    }
+
+    public int size() {
+        return equations.length;
+    }
+
+    // Base-3 pattern number of a packed feedback code, 0 .. 3^length - 1
+    int patternIndex(int feedback) {
+        int index = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            index = index * 3 + Feedback.stateAt(feedback, i) - Feedback.ABSENT;
+        }
+        return index;
+    }
+
+    int patternCount() {
+        return patternCount;
+    }
+
+    // Pattern that guessing equation guess yields when the target is equation candidate
+    int pattern(int guess, int candidate) {
+        char[] patterns = patternMatrix();
+        if (patterns != null) {
+            return patterns[guess * equations.length + candidate];
+        }
+        return patternIndex(Feedback.score(equations[guess], equations[candidate], SCRATCH.get()));
+    }
+
+    private char[] patternMatrix() {
+        char[] patterns = matrix;
+        long entries = (long) equations.length * equations.length;
+        if (patterns != null || entries > MATRIX_LIMIT || patternCount > Character.MAX_VALUE + 1) {
+            return patterns;
+        }
+        // One thread builds it; the others score directly meanwhile. Waiting for the builder instead
+        // could deadlock when the waiters are the pool workers its parallel loop needs.
+        if (!buildingMatrix.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            int n = equations.length;
+            char[] built = new char[(int) entries];
+            IntStream.range(0, n).parallel().forEach(guess -> {
+                int[] counts = SCRATCH.get();
+                for (int candidate = 0; candidate < n; candidate++) {
+                    built[guess * n + candidate] =
+                            (char) patternIndex(Feedback.score(equations[guess], equations[candidate], counts));
+                }
+            });
+            matrix = built;
+            return built;
+        } finally {
+            buildingMatrix.set(false); // a failed build is tried again by the next caller
+        }
+    }
+
+    // With isOpening, the result is kept as the opening only if every guess was scored before the deadline,
+    // so a hint cut short by a slow start is not remembered for the dictionary's lifetime
+    private int bestGuess(int[] remaining, boolean isOpening) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int[] targets = sample(remaining, MAX_TARGETS);
+        int[] guesses = guessPool(remaining, (int) Math.max(LEAF_GUESSES, WORK_LIMIT / targets.length));
+        double[] entropies = new double[guesses.length];
+        ForkJoinPool.commonPool().invoke(new EntropyTask(guesses, targets, entropies, 0, guesses.length, deadline));
+
+        // Highest entropy wins; candidates come first in the pool, so on ties a guess that could itself
+        // be the answer is kept, and so is the first guess when nothing was scored in time
+        int best = 0;
+        boolean complete = entropies[0] >= 0;
+        for (int guess = 1; guess < entropies.length; guess++) {
+            if (entropies[guess] - entropies[best] > 1e-9) {
+                best = guess;
+            }
+            complete &= entropies[guess] >= 0;
+        }
+        if (isOpening && complete) {
+            opening = equations[guesses[best]];
+        }
+        return guesses[best];
+    }
+
+    // The remaining candidates, then other equations: every equation if they fit in limit, otherwise an
+    // even sample of the candidates filled up with an even sample of the others
+    private int[] guessPool(int[] remaining, int limit) {
+        boolean everything = equations.length <= limit;
+        int[] candidates = everything ? remaining : sample(remaining, limit / 2);
+        boolean[] taken = new boolean[equations.length];
+        for (int candidate : candidates) {
+            taken[candidate] = true;
+        }
+        int others = Math.min(limit, equations.length) - candidates.length;
+        int[] pool = Arrays.copyOf(candidates, candidates.length + others);
+        int size = candidates.length;
+        for (int i = 0; i < (everything ? equations.length : others); i++) {
+            int other = everything ? i : (int) ((long) i * equations.length / others);
+            if (!taken[other]) {
+                pool[size++] = other;
+            }
+        }
+        return Arrays.copyOf(pool, size);
+    }
+
+    // At most limit entries of indices, evenly spaced and in order
+    private static int[] sample(int[] indices, int limit) {
+        if (indices.length <= limit) {
+            return indices;
+        }
+        int[] sample = new int[limit];
+        for (int i = 0; i < limit; i++) {
+            sample[i] = indices[(int) ((long) i * indices.length / limit)];
+        }
+        return sample;
+    }
+
+    // Entropy of the feedback partition of targets for every guess in [from, to), or -1 past the deadline
+    private final class EntropyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] guesses;
+        private final int[] targets;
+        private final double[] entropies;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        EntropyTask(int[] guesses, int[] targets, double[] entropies, int from, int to, long deadline) {
+            this.guesses = guesses;
+            this.targets = targets;
+            this.entropies = entropies;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_GUESSES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EntropyTask(guesses, targets, entropies, from, middle, deadline),
+                        new EntropyTask(guesses, targets, entropies, middle, to, deadline));
+                return;
+            }
+            int[] counts = new int[patternCount];
+            double total = targets.length;
+            for (int i = from; i < to; i++) {
+                if (System.nanoTime() - deadline > 0) {
+                    entropies[i] = -1;
+                    continue;
+                }
+                int guess = guesses[i];
+                for (int candidate : targets) {
+                    counts[pattern(guess, candidate)]++;
+                }
+                // H = log2(N) - sum(c * log2(c)) / N, clearing the counts for the next guess as we go
+                double weighted = 0;
+                for (int candidate : targets) {
+                    int pattern = pattern(guess, candidate);
+                    int count = counts[pattern];
+                    if (count > 0) {
+                        weighted += count * Math.log(count);
+                        counts[pattern] = 0;
+                    }
+                }
+                entropies[i] = (Math.log(total) - weighted / total) / Math.log(2);
+            }
+        }
+    }
+}
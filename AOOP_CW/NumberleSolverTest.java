@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberleSolverTest {
+
+    @Test
+    void testSolversAreKeptPerDictionary() {
+        EquationDictionary dictionary = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        EquationDictionary copy = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        assertSame(NumberleSolver.forDictionary(dictionary), NumberleSolver.forDictionary(dictionary),
+                "A dictionary should keep its solver.");
+        assertNotSame(NumberleSolver.forDictionary(dictionary), NumberleSolver.forDictionary(copy),
+                "Another dictionary instance gets its own solver.");
+    }
+
+    @Test
+    void testHintsStayBoundedOnLargeDictionaries() {
+        EquationDictionary dictionary = EquationDictionary.of(EquationGenerator.generate(8));
+        NumberleSolver solver = NumberleSolver.forDictionary(dictionary);
+        long start = System.nanoTime();
+        String opening = solver.nextGuess(List.of());
+        assertTrue(System.nanoTime() - start < 10_000_000_000L, "The opening should not score every pair.");
+        assertNotNull(opening);
+
+        Random random = new Random(8);
+        int[] counts = new int[EquationAlphabet.SIZE];
+        for (int game = 0; game < 5; game++) {
+            String target = dictionary.get(random.nextInt(dictionary.size()));
+            List<GuessResult> history = new ArrayList<>();
+            while (history.isEmpty() || !history.get(history.size() - 1).isCorrect()) {
+                String guess = solver.nextGuess(history);
+                assertNotNull(guess, "The target always fits its own feedback.");
+                history.add(new GuessResult(guess, Feedback.score(guess, target, counts)));
+                assertTrue(history.size() <= INumberleModel.MAX_ATTEMPTS, "The solver should find " + target + " in time.");
+            }
+        }
+    }
+
+    @Test
+    void testOpeningIsKeptOnlyWhenFullyScored() {
+        List<String> equations = EquationGenerator.generate(5);
+        NumberleSolver complete = new NumberleSolver(equations);
+        String opening = complete.nextGuess(List.of());
+        assertTrue(complete.hasOpening(), "An opening scored within the budget is kept.");
+        assertSame(opening, complete.nextGuess(List.of()));
+
+        System.setProperty(NumberleSolver.BUDGET_PROPERTY, "0");
+        try {
+            NumberleSolver cutShort = new NumberleSolver(equations);
+            assertNotNull(cutShort.nextGuess(List.of()), "A hint past the deadline still suggests something.");
+            assertFalse(cutShort.hasOpening(), "An opening cut short by the deadline is scored again next time.");
+        } finally {
+            System.clearProperty(NumberleSolver.BUDGET_PROPERTY);
+        }
+    }
+
+    @Test
+    void testSolverKeepsTargetAsCandidate() {
+        NumberleModel model = new NumberleModel();
+        model.initialize();
+        NumberleSolver solver = new NumberleSolver(model.getEquations());
+        String opening = solver.nextGuess(model.getGuessHistory());
+        assertNotNull(opening, "The solver should always suggest an opening guess.");
+        assertTrue(model.processInput(opening), "Suggested guesses should be valid equations.");
+
+        boolean targetRemains = false;
+        for (int candidate : solver.remainingCandidates(model.getGuessHistory())) {
+            targetRemains |= solver.getEquation(candidate).equals(model.getTargetNumber());
+        }
+        assertTrue(targetRemains, "The target must stay consistent with its own feedback.");
+    }
+
+    @Test
+    void testHintsFollowAMatchingStrategyTree(@TempDir Path dir) throws Exception {
+        List<String> equations = EquationGenerator.generate(5).subList(0, 40);
+        String natural = new NumberleSolver(equations).nextGuess(List.of());
+        int opening = equations.get(0).equals(natural) ? 1 : 0;
+        Path file = dir.resolve("strategy.tree");
+        StrategyTree.from(new DecisionTreeAnalyzer(equations, 8).analyzeOpening(opening).tree, equations).write(file);
+        StrategyTree tree = StrategyTree.load(file);
+
+        NumberleSolver other = new NumberleSolver(equations.subList(1, 40));
+        other.useStrategyTree(tree);
+        assertEquals(new NumberleSolver(equations.subList(1, 40)).nextGuess(List.of()), other.nextGuess(List.of()),
+                "A tree for another dictionary is ignored.");
+
+        NumberleSolver solver = new NumberleSolver(equations);
+        solver.useStrategyTree(tree);
+        assertEquals(equations.get(opening), solver.nextGuess(List.of()), "The opening comes from the tree.");
+        int[] counts = new int[EquationAlphabet.SIZE];
+        for (String target : equations) {
+            List<GuessResult> history = new ArrayList<>();
+            while (history.isEmpty() || !history.get(history.size() - 1).isCorrect()) {
+                String guess = solver.nextGuess(history);
+                assertEquals(tree.nextGuess(equations, history), guess, "Every hint follows the tree.");
+                history.add(new GuessResult(guess, Feedback.score(guess, target, counts)));
+            }
+        }
+        String offGuess = equations.get(opening == 0 ? 1 : 0);
+        List<GuessResult> offTree = List.of(new GuessResult(offGuess, Feedback.score(offGuess, equations.get(5), counts)));
+        assertNull(tree.nextGuess(equations, offTree));
+        assertNotNull(solver.nextGuess(offTree), "Off the tree, hints are scored as before.");
+    }
+}
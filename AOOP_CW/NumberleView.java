@@ -1,34 +1,63 @@
 import javax.swing.*;
-import javax.swing.text.*;
 import java.awt.*;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-public class NumberleView implements Observer {
-    private final NumberleModel model;
-    private final NumberleController controller;
+public class NumberleView implements GameListener {
+    private NumberleModel model;
+    private NumberleController controller;
     private final JFrame frame = new JFrame("Numberle");
+    private final JProgressBar loadingBar = new JProgressBar();
+    private final List<JComponent> inputs = new ArrayList<>(); // disabled until a model is attached
     private final JTextField inputTextField = new JTextField(7);
     private final JLabel attemptsLabel = new JLabel("Attempts remaining: ");
-    private final JTextPane guessHistoryPane = new JTextPane();
-    private final JScrollPane scrollPane = new JScrollPane(guessHistoryPane);
-    private final Map<Character, JButton> buttonMap = new HashMap<>();
-    private final Map<Character, Color> buttonColorCache = new HashMap<>(); // Button color cache
+    private final JLabel candidatesLabel = new JLabel();
+    private final GuessGrid guessGrid = new GuessGrid(7);
+    private final JScrollPane scrollPane = new JScrollPane(guessGrid);
+    private final JButton[] keyButtons = new JButton[EquationAlphabet.SIZE]; // indexed by symbol number
+    private final int[] keyStates = new int[EquationAlphabet.SIZE]; // best Feedback state seen per key
     private final JButton newGameButton = new JButton("New Game");
-    private final Map<Color, Integer> colorPriorityMap = new HashMap<>() {{
-        put(Color.GREEN, 3);
-        put(Color.ORANGE, 2);
-        put(Color.GRAY, 1);
-    }};
+    private final JButton hintButton = new JButton("Hint");
+    private final JCheckBox hardModeBox = new JCheckBox("Hard mode");
+    private final JComboBox<Integer> lengthBox = new JComboBox<>();
+    private EquationDictionary indexing; // dictionary whose candidate index is being built for the label
+
+    // Shows the window straight away with input disabled; attach() brings it to life
+    public NumberleView() {
+        initializeFrame();
+    }
 
     public NumberleView(NumberleModel model, NumberleController controller) {
+        this();
+        attach(model, controller);
+    }
+
+    // Connects the window to a ready model, starts the first game and enables input. Call on the EDT.
+    public void attach(NumberleModel model, NumberleController controller) {
         this.model = model;
         this.controller = controller;
-        this.controller.setView(this);
-        this.controller.startNewGame();
-        this.model.addObserver(this);
-        initializeFrame();
-        update(model, null);
-        clearHistory();
+        controller.setView(this);
+        model.addListener(this, SwingUtilities::invokeLater); // events arrive on the EDT in batches
+        controller.startNewGame();
+        lengthBox.setSelectedItem(model.getEquationLength());
+        guessGrid.reset(model.getEquationLength());
+        frame.remove(loadingBar);
+        for (JComponent input : inputs) {
+            input.setEnabled(true);
+        }
+        newGameButton.setEnabled(false);
+        frame.revalidate();
+        inputTextField.requestFocusInWindow();
+    }
+
+    public void showLoadFailure(Throwable error) {
+        loadingBar.setIndeterminate(false);
+        loadingBar.setString("Could not load equations: " + error.getMessage());
+    }
+
+    JFrame getFrame() {
+        return frame;
     }
 
     private void initializeFrame() {
@@ -36,12 +65,6 @@ public class NumberleView implements Observer {
         frame.setSize(800, 800); // Window size
         frame.setLayout(new BorderLayout());
 
-        guessHistoryPane.setEditable(false);
-        SimpleAttributeSet centerAlign = new SimpleAttributeSet();
-        StyleConstants.setAlignment(centerAlign, StyleConstants.ALIGN_CENTER);
-        StyleConstants.setFontSize(centerAlign, 48); // Font size
-        StyleConstants.setFontFamily(centerAlign, "Monospaced"); // Fixed width font
-        guessHistoryPane.setParagraphAttributes(centerAlign, true);
         scrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS);
 
         JPanel centerPanel = new JPanel(new BorderLayout());
@@ -64,8 +87,33 @@ public class NumberleView implements Observer {
             inputTextField.setText("");
         });
 
+        hintButton.setFocusPainted(false);
+        hintButton.addActionListener(e -> {
+            // The solver runs in the background; the result is applied back on the EDT
+            hintButton.setEnabled(false);
+            controller.requestHint().whenComplete((hint, error) -> SwingUtilities.invokeLater(() -> {
+                if (hint != null) {
+                    inputTextField.setText(hint);
+                }
+                hintButton.setEnabled(true);
+            }));
+        });
+
+        hardModeBox.setFocusPainted(false);
+        hardModeBox.addActionListener(e -> controller.setHardMode(hardModeBox.isSelected()));
+
+        for (int length : EquationLibrary.shared().interactiveLengths()) {
+            lengthBox.addItem(length);
+        }
+        lengthBox.setToolTipText("Equation length");
+        lengthBox.addActionListener(e -> changeLength((Integer) lengthBox.getSelectedItem()));
+
         inputPanel.add(submitButton);
+        inputPanel.add(hintButton);
+        inputPanel.add(hardModeBox);
+        inputPanel.add(lengthBox);
         inputPanel.add(attemptsLabel);
+        inputPanel.add(candidatesLabel);
         inputPanel.add(newGameButton); //new game button
 
         // Set the new game button to start off disabled
@@ -95,70 +143,74 @@ public class NumberleView implements Observer {
                     inputTextField.setText(inputTextField.getText() + b);
                 }
             });
-            char key = b.charAt(0);
-            buttonMap.put(key, btn);
-            buttonColorCache.put(key, null); // Initializes the color cache
+            int symbol = EquationAlphabet.indexOf(b.charAt(0));
+            if (symbol >= 0) {
+                keyButtons[symbol] = btn;
+            }
             buttonPanel.add(btn);
+            inputs.add(btn);
         }
 
         centerPanel.add(inputPanel, BorderLayout.NORTH);
         centerPanel.add(buttonPanel, BorderLayout.SOUTH);
 
+        inputs.add(inputTextField);
+        inputs.add(submitButton);
+        inputs.add(hintButton);
+        inputs.add(hardModeBox);
+        inputs.add(lengthBox);
+        inputs.add(newGameButton);
+        for (JComponent input : inputs) {
+            input.setEnabled(false);
+        }
+        loadingBar.setIndeterminate(true);
+        loadingBar.setStringPainted(true);
+        loadingBar.setString("Loading equations...");
+
+        frame.add(loadingBar, BorderLayout.NORTH);
         frame.add(centerPanel, BorderLayout.CENTER);
         frame.setVisible(true);
     }
 
     @Override
-    public void update(java.util.Observable o, Object arg) {
-        if (o instanceof NumberleModel) {
-            attemptsLabel.setText("Attempts remaining: " + controller.getRemainingAttempts());
-            if (arg == null || arg.equals("")) {
-                updateGuessHistory();
-                updateAllButtonColors();
-            }
+    public void gameStarted(GameEvent.GameStarted event) {
+        attemptsLabel.setText("Attempts remaining: " + event.getRemainingAttempts());
+        updateCandidatesLabel();
+    }
 
-            if (controller.isGameOver()) {
-                String targetEquation = controller.getTargetWord();
-                if (controller.isGameWon()) {
-                    int option = JOptionPane.showConfirmDialog(
-                            frame,
-                            "Congratulations! You won! The correct equation is: " + targetEquation + "\nDo you want to start a new game?",
-                            "Game Over",
-                            JOptionPane.YES_NO_OPTION
-                    );
-                    if (option == JOptionPane.YES_OPTION) {
-                        controller.startNewGame();
-                        resetButtonColors(); // Reset button color
-                        clearHistory(); // Clear history
-                    } else {
-                        System.exit(0);
-                    }
-                } else {
-                    int option = JOptionPane.showConfirmDialog(
-                            frame,
-                            "Game over! The correct equation is: " + targetEquation + "\nDo you want to start a new game?",
-                            "Game Over",
-                            JOptionPane.YES_NO_OPTION
-                    );
-                    if (option == JOptionPane.YES_OPTION) {
-                        controller.startNewGame();
-                        resetButtonColors();
-                        clearHistory();
-                    } else {
-                        System.exit(0);
-                    }
-                }
-                newGameButton.setEnabled(true); // Enable the new game button
-                resetButtonColors();
-                clearHistory();
-            }
+    @Override
+    public void guessAccepted(GameEvent.GuessAccepted event) {
+        attemptsLabel.setText("Attempts remaining: " + event.getRemainingAttempts());
+        updateGuessHistory(event.getResult());
+        updateAllButtonColors(event.getResult());
+        updateCandidatesLabel();
+    }
 
-            if (arg instanceof String) {
-                JOptionPane.showMessageDialog(frame, arg, "Invalid Input", JOptionPane.ERROR_MESSAGE);
-                inputTextField.selectAll();
-                inputTextField.requestFocus();
-            }
+    @Override
+    public void guessRejected(GameEvent.GuessRejected event) {
+        JOptionPane.showMessageDialog(frame, event.getReason(), "Invalid Input", JOptionPane.ERROR_MESSAGE);
+        inputTextField.selectAll();
+        inputTextField.requestFocus();
+    }
+
+    @Override
+    public void gameOver(GameEvent.GameOver event) {
+        String message = event.isWon()
+                ? "Congratulations! You won! The correct equation is: "
+                : "Game over! The correct equation is: ";
+        int option = JOptionPane.showConfirmDialog(
+                frame,
+                message + event.getTarget() + "\nDo you want to start a new game?",
+                "Game Over",
+                JOptionPane.YES_NO_OPTION
+        );
+        if (option != JOptionPane.YES_OPTION) {
+            System.exit(0);
         }
+        controller.startNewGame();
+        newGameButton.setEnabled(true); // Enable the new game button
+        resetButtonColors(); // Reset button color
+        clearHistory(); // Clear history
     }
 
 
@@ -167,109 +219,95 @@ public class NumberleView implements Observer {
         attemptsLabel.setText("Attempts remaining: " + controller.getRemainingAttempts());
     }
 
-    private void updateGuessHistory() {
-        StyledDocument doc = guessHistoryPane.getStyledDocument();
-        try {
-            String guess = controller.getCurrentGuess().toString();
-            if (guess.trim().isEmpty()) {
-                return;
+    // A new length's dictionary may have to be built first; the window stays responsive meanwhile, but guesses
+    // are held back until the model has switched so none of them mixes the two lengths
+    private void changeLength(int length) {
+        if (length == model.getEquationLength()) {
+            return;
+        }
+        boolean newGameEnabled = newGameButton.isEnabled();
+        for (JComponent input : inputs) {
+            input.setEnabled(false);
+        }
+        candidatesLabel.setText("Loading " + length + "-symbol equations...");
+        controller.loadEquationLength(length).whenComplete((dictionary, error) -> SwingUtilities.invokeLater(() -> {
+            for (JComponent input : inputs) {
+                input.setEnabled(true);
             }
-
-            final int equationLength = 7; // Length of the equation (including operators)
-
-            for (int i = 0; i < guess.length() - 1; i += 3) {
-                char guessChar = guess.charAt(i);
-                char statusChar = guess.charAt(i + 1);
-                SimpleAttributeSet attributeSet = new SimpleAttributeSet();
-
-                switch (statusChar) {
-                    case '✓':
-                        StyleConstants.setBackground(attributeSet, Color.GREEN);
-                        break;
-                    case '?':
-                        StyleConstants.setBackground(attributeSet, Color.ORANGE);
-                        break;
-                    default:
-                        StyleConstants.setBackground(attributeSet, Color.GRAY);
-                        break;
-                }
-                StyleConstants.setBold(attributeSet, true);
-                doc.insertString(doc.getLength(), " " + guessChar + " ", attributeSet);
+            if (error != null) {
+                newGameButton.setEnabled(newGameEnabled);
+                lengthBox.setSelectedItem(model.getEquationLength());
+                updateCandidatesLabel();
+                JOptionPane.showMessageDialog(frame, error.getCause() != null ? error.getCause().getMessage() : error.getMessage(),
+                        "Equation length", JOptionPane.ERROR_MESSAGE);
+                return;
             }
+            controller.setEquationLength(length);
+            controller.startNewGame();
+            resetButtonColors();
+            guessGrid.reset(length);
+            inputTextField.setColumns(length);
+            inputTextField.setText("");
+            newGameButton.setEnabled(false);
+            frame.revalidate();
+            inputTextField.requestFocusInWindow();
+        }));
+    }
 
-            // Pad remaining spaces to maintain consistent equation length
-            int remainingLength = equationLength - (guess.length() / 3);
-            if (remainingLength > 0) {
-                doc.insertString(doc.getLength(), String.format("%" + (remainingLength * 3) + "s", ""), null);
+    // The first count over a dictionary builds its candidate index, which takes seconds for the long
+    // lengths, so that happens in the background and the label catches up once it is done
+    private void updateCandidatesLabel() {
+        EquationDictionary dictionary = model.getDictionary();
+        if (!dictionary.hasCandidateIndex()) {
+            candidatesLabel.setText("Calculating possible answers...");
+            if (indexing != dictionary) {
+                indexing = dictionary;
+                CompletableFuture.runAsync(dictionary::candidateIndex).whenComplete((done, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        candidatesLabel.setText("");
+                    } else if (model.getDictionary() == dictionary) {
+                        updateCandidatesLabel();
+                    }
+                }));
             }
-
-            doc.insertString(doc.getLength(), "\n", null);
-        } catch (BadLocationException e) {
-            e.printStackTrace();
+            return;
         }
+        int left = model.getRemainingCandidateCount();
+        candidatesLabel.setText(left + (left == 1 ? " possible answer left" : " possible answers left"));
     }
 
-    private void updateAllButtonColors() {
-        String guess = controller.getCurrentGuess().toString();
-        if (guess.isEmpty()) {
-            return; // If guess is empty, it simply returns without any update
-        }
-
-        // Iterate over each character-status pair, updating the button color
-        for (int i = 0; i < guess.length() - 1; i += 3) {
-            char guessChar = guess.charAt(i);
-            char statusChar = guess.charAt(i + 1);
-            Color newColor;
-
-            switch (statusChar) {
-                case '✓':
-                    newColor = Color.GREEN;
-                    break;
-                case '?':
-                    newColor = Color.ORANGE;
-                    break;
-                default:
-                    newColor = Color.GRAY;
-                    break;
-            }
-
-            // Gets the current color of the button
-            JButton button = buttonMap.get(guessChar);
-            if (button != null) {
-                Color currentColor = buttonColorCache.getOrDefault(guessChar, null);
+    private void updateGuessHistory(GuessResult result) {
+        guessGrid.addRow(result); // repaints just the new row
+    }
 
-                // Determine whether the new color is better than the current color
-                if (shouldUpdateButtonColor(currentColor, newColor)) {
-                    button.setBackground(newColor);
-                    buttonColorCache.put(guessChar, newColor);
-                }
+    private void updateAllButtonColors(GuessResult result) {
+        NumberleEvents.ViewRepaint event = new NumberleEvents.ViewRepaint();
+        event.begin();
+        int recolored = 0;
+        // A key only ever moves up in priority: gray, orange, green
+        for (int symbol = 0; symbol < keyButtons.length; symbol++) {
+            int state = result.getKeyState(EquationAlphabet.symbolAt(symbol));
+            if (state > keyStates[symbol]) {
+                keyStates[symbol] = state;
+                keyButtons[symbol].setBackground(GuessGrid.stateColor(state));
+                recolored++;
             }
         }
-    }
-
-    private boolean shouldUpdateButtonColor(Color currentColor, Color newColor) {
-        // If both the current color and the new color are green, green has the highest priority and false is returned directly
-        if (currentColor == Color.GREEN && newColor == Color.GREEN) {
-            return false;
+        if (event.shouldCommit()) {
+            event.path = "keyboard";
+            event.items = recolored;
+            event.commit();
         }
-
-        // Gets the priority of the current color and the new color
-        Integer currentPriority = colorPriorityMap.getOrDefault(currentColor, 0);
-        Integer newPriority = colorPriorityMap.getOrDefault(newColor, 0);
-
-        // Comparative priority
-        return newPriority > currentPriority;
     }
 
     private void resetButtonColors() {
-        for (Map.Entry<Character, JButton> entry : buttonMap.entrySet()) {
-            JButton button = entry.getValue();
-            button.setBackground(null);
+        for (int symbol = 0; symbol < keyButtons.length; symbol++) {
+            keyButtons[symbol].setBackground(null);
+            keyStates[symbol] = Feedback.EMPTY;
         }
-        buttonColorCache.replaceAll((k, v) -> null);
     }
 
     private void clearHistory() {
-        guessHistoryPane.setText("");
+        guessGrid.clear();
     }
 }
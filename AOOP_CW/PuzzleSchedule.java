@@ -0,0 +1,92 @@
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Seeded target selection without stored state. A keyed bijective permutation of the dictionary indices
+// gives every player their own order: their n-th game is permute(playerKey, n), so nobody sees a repeat
+// until they have played the whole dictionary, and nothing about a player has to be remembered beyond the
+// number of games they played. The daily puzzle is the same permutation under a key shared by everyone,
+// indexed by the day.
+//
+// The permutation is a 4-round Feistel network over the smallest even number of bits that covers the
+// dictionary, walking the cycle until the result lands inside it. The domain is under four times the
+// dictionary, so that takes under four rounds of the network on average: O(1) with no tables.
+//
+// Every server with the same -Dnumberle.puzzle.key agrees on the daily puzzle and on every player's
+// order. Set a secret key in production so the sequence cannot be predicted. Reloading the dictionary
+// with a different size changes the orders.
+public final class PuzzleSchedule {
+    public static final String KEY_PROPERTY = "numberle.puzzle.key";
+
+    private static final int ROUNDS = 4;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long DAILY = 0x44414C59L; // "DALY", keeps the daily key apart from player keys
+
+    private final long key;
+
+    public PuzzleSchedule(long key) {
+        this.key = key;
+    }
+
+    private static final class Shared {
+        static final PuzzleSchedule INSTANCE = new PuzzleSchedule(Long.getLong(KEY_PROPERTY, 0x4E554D42L));
+    }
+
+    public static PuzzleSchedule shared() {
+        return Shared.INSTANCE;
+    }
+
+    // Index of the day's puzzle. Days are counted from 1970-01-01 in runs of size days, and within a run
+    // every equation comes up exactly once.
+    public int daily(LocalDate day, int size) {
+        long epochDay = day.toEpochDay();
+        return at(mix(key ^ DAILY), Math.floorDiv(epochDay, size), Math.floorMod(epochDay, size), size);
+    }
+
+    // Today's puzzle, by the UTC date
+    public int today(int size) {
+        return daily(LocalDate.now(ZoneOffset.UTC), size);
+    }
+
+    // Index of the player's game number n (from 0). Games n and m differ whenever they fall in the same
+    // run of size games; after a full run the player starts on a fresh order.
+    public int playerGame(long playerId, long n, int size) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Game number must not be negative: " + n);
+        }
+        return at(mix(key ^ mix(playerId)), n / size, n % size, size);
+    }
+
+    private static int at(long stream, long cycle, long position, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Nothing to choose from");
+        }
+        return permute(mix(stream + cycle * GOLDEN), (int) position, size);
+    }
+
+    // Bijection of [0, size) chosen by key
+    static int permute(long key, int position, int size) {
+        assert position >= 0 && position < size : "Position out of range";
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1L));
+        int half = (bits + 1) >>> 1;
+        long mask = (1L << half) - 1;
+        long x = position;
+        do {
+            long left = x >>> half;
+            long right = x & mask;
+            for (int round = 0; round < ROUNDS; round++) {
+                long next = left ^ mix(key + round * GOLDEN ^ right) & mask;
+                left = right;
+                right = next;
+            }
+            x = left << half | right;
+        } while (x >= size); // cycle walking: stays a bijection of [0, size)
+        return (int) x;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
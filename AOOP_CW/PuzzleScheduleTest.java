@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleScheduleTest {
+
+    @Test
+    void testPuzzleScheduleIsAKeyedPermutation() {
+        PuzzleSchedule schedule = new PuzzleSchedule(42);
+        for (int size : new int[]{1, 2, 3, 108, 1000, 4097}) {
+            boolean[] seen = new boolean[size];
+            for (long n = 0; n < size; n++) {
+                int index = schedule.playerGame(7, n, size);
+                assertFalse(seen[index], "A player never repeats within one run of the dictionary.");
+                seen[index] = true;
+            }
+        }
+        assertEquals(schedule.playerGame(7, 123, 1000), new PuzzleSchedule(42).playerGame(7, 123, 1000),
+                "The n-th game depends only on key, player and n.");
+        int same = 0;
+        for (long n = 0; n < 1000; n++) {
+            if (schedule.playerGame(7, n, 1000) == schedule.playerGame(8, n, 1000)) {
+                same++;
+            }
+        }
+        assertTrue(same < 20, "Different players get different orders.");
+
+        LocalDate day = LocalDate.of(2026, 10, 17);
+        Set<Integer> week = new HashSet<>();
+        for (int d = 0; d < 7; d++) {
+            week.add(schedule.daily(day.plusDays(d), 1000));
+        }
+        assertEquals(7, week.size(), "Consecutive days get different puzzles.");
+
+        EquationDictionary dictionary = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        NumberleModel first = new NumberleModel(dictionary);
+        NumberleModel second = new NumberleModel(dictionary);
+        first.initializeDaily(day);
+        second.initializeDaily(day);
+        assertEquals(first.getTargetNumber(), second.getTargetNumber(), "Everyone plays the same daily puzzle.");
+
+        NumberleModel player = new NumberleModel(dictionary);
+        player.followSchedule(99, 0);
+        Set<String> targets = new HashSet<>();
+        for (int game = 0; game < 3; game++) {
+            player.startNewGame();
+            targets.add(player.getTargetNumber());
+        }
+        assertEquals(3, targets.size(), "A scheduled player sees every equation before any repeat.");
+        assertEquals(3, player.getNextScheduledGame());
+    }
+}
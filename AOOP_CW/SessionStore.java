@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Parked games in fixed-width slots of direct ByteBuffers, outside the Java heap. Suspending a model
+// writes its game into a slot and the model can be dropped; resuming fills a model from the slot again.
+// A parked game costs SLOT_BYTES and no objects, so millions of them add nothing for the GC to trace,
+// and a snapshot to disk is one gathering write of the slots.
+//
+// Slot:     flags (OCCUPIED, HARD_MODE, WON), equation length, guess count, reserved, target index,
+//           packed target, then MAX_ATTEMPTS packed guesses (8 bytes each) and MAX_ATTEMPTS feedback
+//           codes (4 bytes each). The target is kept itself, so a game survives a dictionary reload.
+// Snapshot: MAGIC, VERSION, SLOT_BYTES, slot count, then the slots.
+public final class SessionStore {
+    static final int SLOT_BYTES = 16 + INumberleModel.MAX_ATTEMPTS * (Long.BYTES + Integer.BYTES);
+    private static final int SLOTS_PER_CHUNK = 1 << 16;
+    private static final int MAGIC = 0x4E534553; // "NSES"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int OCCUPIED = 1;
+    private static final int HARD_MODE = 2;
+    private static final int WON = 4;
+    private static final int TARGET = 8;
+    private static final int GUESSES = 16;
+    private static final int FEEDBACK = GUESSES + INumberleModel.MAX_ATTEMPTS * Long.BYTES;
+
+    // Slot reads and writes share the read lock, since every caller owns a different slot; a snapshot
+    // takes the write lock so it never copies a half-written slot
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    // Guarded by this: free slots below highWater, and the first slot never handed out
+    private int[] free = new int[64];
+    private int freeCount;
+    private int highWater;
+    private int occupied;
+
+    public SessionStore() {
+    }
+
+    // Parks the model's current game and returns its slot. The model can be reused or dropped afterwards.
+    public int suspend(NumberleModel model) {
+        if (model.getTargetNumber() == null) {
+            throw new IllegalStateException("No game to suspend");
+        }
+        List<GuessResult> history = model.getGuessHistory();
+        int slot = allocate();
+        lock.readLock().lock();
+        try {
+            ByteBuffer chunk = chunk(slot);
+            int base = offset(slot);
+            for (int i = 0; i < history.size(); i++) {
+                GuessResult result = history.get(i);
+                chunk.putLong(base + GUESSES + i * Long.BYTES, EquationDictionary.pack(result.getGuess(), result.length()));
+                chunk.putInt(base + FEEDBACK + i * Integer.BYTES, result.getFeedback());
+            }
+            int flags = OCCUPIED | (model.isHardMode() ? HARD_MODE : 0) | (model.isGameWon() ? WON : 0);
+            chunk.putInt(base, flags << 24 | model.getEquationLength() << 16 | history.size() << 8);
+            chunk.putInt(base + 4, model.getTargetIndex());
+            chunk.putLong(base + TARGET, EquationDictionary.pack(model.getTargetNumber(), model.getEquationLength()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return slot;
+    }
+
+    // Continues the game parked in the slot on the given model and frees the slot
+    public void resume(int slot, NumberleModel model) {
+        int length;
+        int targetIndex;
+        String target;
+        boolean hardMode;
+        List<GuessResult> history;
+        lock.readLock().lock();
+        try {
+            ByteBuffer chunk = chunk(slot);
+            int base = offset(slot);
+            int header = chunk.getInt(base);
+            if ((header >>> 24 & OCCUPIED) == 0) {
+                throw new IllegalArgumentException("No game in slot " + slot);
+            }
+            length = header >>> 16 & 0xFF;
+            hardMode = (header >>> 24 & HARD_MODE) != 0;
+            targetIndex = chunk.getInt(base + 4);
+            target = EquationDictionary.unpack(chunk.getLong(base + TARGET), length);
+            int count = header >>> 8 & 0xFF;
+            history = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String guess = EquationDictionary.unpack(chunk.getLong(base + GUESSES + i * Long.BYTES), length);
+                history.add(new GuessResult(guess, chunk.getInt(base + FEEDBACK + i * Integer.BYTES)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        model.setEquationLength(length);
+        model.setHardMode(hardMode);
+        model.restore(target, targetIndex, history);
+        release(slot);
+    }
+
+    // Forgets the game parked in the slot
+    public void discard(int slot) {
+        release(slot);
+    }
+
+    public synchronized int size() {
+        return occupied;
+    }
+
+    // Off-heap bytes reserved for slots
+    public long footprintBytes() {
+        return (long) chunks.length * SLOTS_PER_CHUNK * SLOT_BYTES;
+    }
+
+    // Writes every slot handed out so far to the file in one gathering write
+    public void snapshot(Path path) throws IOException {
+        lock.writeLock().lock();
+        try {
+            int slots;
+            synchronized (this) {
+                slots = highWater;
+            }
+            ByteBuffer[] chunks = this.chunks;
+            ByteBuffer[] buffers = new ByteBuffer[1 + (slots + SLOTS_PER_CHUNK - 1) / SLOTS_PER_CHUNK];
+            buffers[0] = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(SLOT_BYTES).putInt(slots).flip();
+            for (int c = 1; c < buffers.length; c++) {
+                int inChunk = Math.min(SLOTS_PER_CHUNK, slots - (c - 1) * SLOTS_PER_CHUNK);
+                buffers[c] = chunks[c - 1].duplicate().limit(inChunk * SLOT_BYTES);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffers[buffers.length - 1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reads a snapshot back; every game in it keeps its slot number
+    public static SessionStore load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getInt() != SLOT_BYTES) {
+                throw new IOException(path + " is not a session snapshot");
+            }
+            int slots = header.getInt();
+            if (channel.size() != HEADER_BYTES + (long) slots * SLOT_BYTES) {
+                throw new IOException(path + " is truncated");
+            }
+            SessionStore store = new SessionStore();
+            synchronized (store) {
+                while (store.highWater < slots) {
+                    store.grow();
+                    int inChunk = Math.min(SLOTS_PER_CHUNK, slots - store.highWater);
+                    ByteBuffer chunk = store.chunks[store.chunks.length - 1].duplicate().limit(inChunk * SLOT_BYTES);
+                    readFully(channel, chunk);
+                    store.highWater += inChunk;
+                }
+                // Free slots are handed out again lowest first
+                for (int slot = slots - 1; slot >= 0; slot--) {
+                    if ((store.chunk(slot).getInt(offset(slot)) >>> 24 & OCCUPIED) == 0) {
+                        store.pushFree(slot);
+                    } else {
+                        store.occupied++;
+                    }
+                }
+            }
+            return store;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+    }
+
+    private synchronized int allocate() {
+        occupied++;
+        if (freeCount > 0) {
+            return free[--freeCount];
+        }
+        if (highWater == chunks.length * SLOTS_PER_CHUNK) {
+            grow();
+        }
+        return highWater++;
+    }
+
+    private void release(int slot) {
+        lock.readLock().lock();
+        try {
+            ByteBuffer chunk = chunk(slot);
+            if ((chunk.getInt(offset(slot)) >>> 24 & OCCUPIED) == 0) {
+                throw new IllegalArgumentException("No game in slot " + slot);
+            }
+            chunk.putInt(offset(slot), 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (this) {
+            occupied--;
+            pushFree(slot);
+        }
+    }
+
+    // Called holding the monitor
+    private void grow() {
+        ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[chunks.length] = ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_BYTES);
+        chunks = grown;
+    }
+
+    private void pushFree(int slot) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+        free[freeCount++] = slot;
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot / SLOTS_PER_CHUNK];
+    }
+
+    private static int offset(int slot) {
+        return slot % SLOTS_PER_CHUNK * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+
+    @Test
+    void testSessionStoreSuspendResumeAndSnapshot() throws Exception {
+        EquationDictionary dictionary = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        SessionStore store = new SessionStore();
+        NumberleModel model = new NumberleModel(dictionary);
+        model.setHardMode(true);
+        model.initialize(0);
+        model.processInput("9-8*1=1");
+        List<GuessResult> played = List.copyOf(model.getGuessHistory());
+        int slot = store.suspend(model);
+        model.initialize(1); // the model is free for another game
+        int other = store.suspend(model);
+        assertEquals(2, store.size());
+
+        Path file = Files.createTempFile("sessions", ".bin");
+        try {
+            store.snapshot(file);
+            SessionStore reloaded = SessionStore.load(file);
+            assertEquals(2, reloaded.size(), "A snapshot keeps every parked game.");
+            NumberleModel resumed = new NumberleModel(dictionary);
+            reloaded.resume(slot, resumed);
+            assertEquals("1+2+3=6", resumed.getTargetNumber());
+            assertEquals(5, resumed.getRemainingAttempts());
+            assertTrue(resumed.isHardMode());
+            assertEquals(played.size(), resumed.getGuessHistory().size());
+            for (int i = 0; i < played.size(); i++) {
+                assertEquals(played.get(i).getGuess(), resumed.getGuessHistory().get(i).getGuess());
+                assertEquals(played.get(i).getFeedback(), resumed.getGuessHistory().get(i).getFeedback());
+            }
+            assertFalse(resumed.processInput("4/2+0=2"), "Hard mode constraints survive a resume.");
+            assertTrue(resumed.processInput("1+2+3=6"));
+            assertTrue(resumed.isGameWon());
+            assertEquals(1, reloaded.size());
+            assertThrows(IllegalArgumentException.class, () -> reloaded.resume(slot, new NumberleModel(dictionary)),
+                    "A slot can only be resumed once.");
+            assertEquals(slot, reloaded.suspend(resumed), "Freed slots are reused.");
+        } finally {
+            Files.delete(file);
+        }
+        store.discard(other);
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+// Flattened guessing strategy: every node names the dictionary equation to guess, and its edges,
+// sorted by packed feedback code, lead to the node to play after that feedback.
+// File layout (big-endian ints): magic, version, length, dictionary size, dictionary hash,
+// node count, edge count, guess[nodes], firstEdge[nodes + 1], code[edges], child[edges].
+//
+// Hints follow the tree written by DecisionTreeAnalyzer to -Dnumberle.strategyTree (default ./strategy.tree)
+// while a game stays on it, for the dictionary it was built for.
+public final class StrategyTree {
+    public static final String PATH_PROPERTY = "numberle.strategyTree";
+    public static final String DEFAULT_PATH = "strategy.tree";
+    private static final int MAGIC = 0x4E545245; // "NTRE"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 7;
+
+    private final int length;
+    private final int dictionarySize;
+    private final int dictionaryHash;
+    private final int[] guess;
+    private final int[] firstEdge;
+    private final int[] code;
+    private final int[] child;
+
+    private StrategyTree(int length, int dictionarySize, int dictionaryHash,
+                         int[] guess, int[] firstEdge, int[] code, int[] child) {
+        this.length = length;
+        this.dictionarySize = dictionarySize;
+        this.dictionaryHash = dictionaryHash;
+        this.guess = guess;
+        this.firstEdge = firstEdge;
+        this.code = code;
+        this.child = child;
+    }
+
+    // Flattens an analyzed tree breadth first so that node 0 is the opening
+    static StrategyTree from(DecisionTreeAnalyzer.Node root, List<String> equations) {
+        int nodes = 0;
+        int edges = 0;
+        ArrayDeque<DecisionTreeAnalyzer.Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            DecisionTreeAnalyzer.Node node = queue.poll();
+            nodes++;
+            edges += node.children.length;
+            queue.addAll(Arrays.asList(node.children));
+        }
+
+        int[] guess = new int[nodes];
+        int[] firstEdge = new int[nodes + 1];
+        int[] code = new int[edges];
+        int[] child = new int[edges];
+        int next = 1;
+        int edge = 0;
+        int index = 0;
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            DecisionTreeAnalyzer.Node node = queue.poll();
+            guess[index] = node.guess;
+            firstEdge[index] = edge;
+            for (int i = 0; i < node.children.length; i++) {
+                code[edge] = node.codes[i];
+                child[edge++] = next++;
+                queue.add(node.children[i]);
+            }
+            index++;
+        }
+        firstEdge[nodes] = edge;
+        return new StrategyTree(equations.get(0).length(), equations.size(), equations.hashCode(),
+                guess, firstEdge, code, child);
+    }
+
+    // Lazily loaded once per JVM
+    private static final class Shared {
+        static final StrategyTree INSTANCE = loadIfPresent(Paths.get(System.getProperty(PATH_PROPERTY, DEFAULT_PATH)));
+    }
+
+    // Returns the JVM-wide tree, or null when no usable tree file exists
+    public static StrategyTree shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static StrategyTree loadIfPresent(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return load(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public static StrategyTree load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+            if (ints.remaining() < HEADER_INTS || ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+                throw new IOException("Not a strategy tree file: " + path);
+            }
+            int length = ints.get(2);
+            int dictionarySize = ints.get(3);
+            int dictionaryHash = ints.get(4);
+            int nodes = ints.get(5);
+            int edges = ints.get(6);
+            if (ints.remaining() != HEADER_INTS + 2 * nodes + 1 + 2 * edges) {
+                throw new IOException("Truncated strategy tree file: " + path);
+            }
+            ints.position(HEADER_INTS);
+            int[] guess = new int[nodes];
+            int[] firstEdge = new int[nodes + 1];
+            int[] code = new int[edges];
+            int[] child = new int[edges];
+            ints.get(guess).get(firstEdge).get(code).get(child);
+            return new StrategyTree(length, dictionarySize, dictionaryHash, guess, firstEdge, code, child);
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        int ints = HEADER_INTS + 2 * guess.length + 1 + 2 * code.length;
+        ByteBuffer buffer = ByteBuffer.allocate(ints * Integer.BYTES);
+        buffer.asIntBuffer()
+                .put(MAGIC).put(VERSION).put(length).put(dictionarySize).put(dictionaryHash)
+                .put(guess.length).put(code.length)
+                .put(guess).put(firstEdge).put(code).put(child);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // True if the tree was built for exactly this dictionary, so its indexes can be trusted
+    public boolean matches(List<String> equations) {
+        return equations.size() == dictionarySize && equations.hashCode() == dictionaryHash
+                && !equations.isEmpty() && equations.get(0).length() == length;
+    }
+
+    // Equation to guess next, or null once the history leaves the tree. equations must match the tree.
+    public String nextGuess(List<String> equations, List<GuessResult> history) {
+        int node = 0;
+        for (GuessResult result : history) {
+            if (result.isCorrect() || !result.getGuess().equals(equations.get(guess[node]))) {
+                return null;
+            }
+            int edge = Arrays.binarySearch(code, firstEdge[node], firstEdge[node + 1], result.getFeedback());
+            if (edge < 0) {
+                return null;
+            }
+            node = child[edge];
+        }
+        return equations.get(guess[node]);
+    }
+
+    public int nodeCount() {
+        return guess.length;
+    }
+}
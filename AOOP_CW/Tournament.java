@@ -0,0 +1,153 @@
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Many players solving one target at the same time. The target and dictionary are shared and immutable;
+// every player gets a NumberleModel of their own started on that target, so scoring is the normal
+// processInput/updateGuessAndCheckWin path and players never share mutable state. Each model reports
+// to the shared Leaderboard through a synchronous listener. Solve time counts from the tournament start.
+public final class Tournament {
+    private final EquationDictionary dictionary;
+    private final int targetIndex;
+    private final long startNanos = System.nanoTime();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final ConcurrentHashMap<Long, Player> players = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public Tournament(EquationDictionary dictionary, int targetIndex) {
+        if (targetIndex < 0 || targetIndex >= dictionary.size()) {
+            throw new IllegalArgumentException("No such target: " + targetIndex);
+        }
+        this.dictionary = dictionary;
+        this.targetIndex = targetIndex;
+    }
+
+    public static Tournament random(EquationDictionary dictionary) {
+        return new Tournament(dictionary, new Random().nextInt(dictionary.size()));
+    }
+
+    public Player join(String name) {
+        Player player = new Player(nextId.getAndIncrement(), name);
+        players.put(player.id, player);
+        leaderboard.recordJoin();
+        return player;
+    }
+
+    public Player getPlayer(long id) {
+        return players.get(id);
+    }
+
+    public String getTarget() {
+        return dictionary.get(targetIndex);
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public final class Player implements GameListener {
+        private final long id;
+        private final String name;
+        private final NumberleModel model = new NumberleModel(dictionary);
+
+        private Player(long id, String name) {
+            this.id = id;
+            this.name = name;
+            model.addListener(this);
+            model.initialize(targetIndex);
+        }
+
+        // A player's own guesses are serialized; different players never block each other
+        public synchronized boolean guess(String equation) {
+            return !model.isGameOver() && model.processInput(equation);
+        }
+
+        public synchronized GuessResult getLastResult() {
+            return model.getLastResult();
+        }
+
+        public synchronized List<GuessResult> getGuessHistory() {
+            return List.copyOf(model.getGuessHistory());
+        }
+
+        public synchronized boolean isFinished() {
+            return model.isGameOver();
+        }
+
+        public synchronized boolean isWon() {
+            return model.isGameWon();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void guessAccepted(GameEvent.GuessAccepted event) {
+            leaderboard.recordGuess(true);
+        }
+
+        @Override
+        public void guessRejected(GameEvent.GuessRejected event) {
+            leaderboard.recordGuess(false);
+        }
+
+        @Override
+        public void gameOver(GameEvent.GameOver event) {
+            if (event.isWon()) {
+                int attempts = INumberleModel.MAX_ATTEMPTS - model.getRemainingAttempts();
+                leaderboard.recordSolved(id, name, attempts, System.nanoTime() - startNanos);
+            } else {
+                leaderboard.recordFailed();
+            }
+        }
+    }
+
+    // Usage: java Tournament [players] [threads]   plays a tournament of solver-driven players
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        EquationDictionary dictionary = EquationDictionary.shared();
+        Tournament tournament = random(dictionary);
+        NumberleSolver solver = NumberleSolver.forDictionary(dictionary);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int seed = i;
+            pool.execute(() -> {
+                Player player = tournament.join("player" + seed);
+                Random random = new Random(seed);
+                // A random opening spreads the field out; the solver plays the rest
+                player.guess(dictionary.get(random.nextInt(dictionary.size())));
+                while (!player.isFinished()) {
+                    String next = solver.nextGuess(player.getGuessHistory());
+                    if (next == null || !player.guess(next)) {
+                        break;
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Leaderboard board = tournament.getLeaderboard();
+        System.out.printf("target %s: %d players, %d guesses in %.2f s, %d solved, %d failed%n", tournament.getTarget(),
+                board.getPlayers(), board.getGuesses(), seconds, board.getSolved(), board.getFailed());
+        for (int attempts = 1; attempts <= INumberleModel.MAX_ATTEMPTS; attempts++) {
+            System.out.printf("  solved in %d: %d%n", attempts, board.getSolvedIn(attempts));
+        }
+        List<Leaderboard.Standing> top = board.top(10);
+        for (int rank = 0; rank < top.size(); rank++) {
+            System.out.println("  #" + (rank + 1) + " " + top.get(rank));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    void testTournamentLeaderboardUnderConcurrentPlayers() throws Exception {
+        EquationDictionary dictionary = EquationDictionary.of(List.of("1+2+3=6", "9-8*1=1", "4/2+0=2"));
+        Tournament tournament = new Tournament(dictionary, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            int player = i;
+            pool.execute(() -> {
+                Tournament.Player p = tournament.join("p" + player);
+                if (player % 2 == 1) {
+                    p.guess("9-8*1=1"); // odd players need a second attempt
+                }
+                p.guess("1+2+3=6");
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        Leaderboard board = tournament.getLeaderboard();
+        assertEquals(400, board.getPlayers());
+        assertEquals(400, board.getSolved());
+        assertEquals(200, board.getSolvedIn(1));
+        assertEquals(600, board.getGuesses());
+        List<Leaderboard.Standing> top = board.top(250);
+        assertEquals(250, top.size());
+        for (int i = 1; i < top.size(); i++) {
+            Leaderboard.Standing previous = top.get(i - 1);
+            Leaderboard.Standing current = top.get(i);
+            assertTrue(previous.getAttempts() < current.getAttempts()
+                    || previous.getAttempts() == current.getAttempts() && previous.getSolveMillis() <= current.getSolveMillis(),
+                    "Fewer attempts rank first, then the faster solve.");
+        }
+        assertEquals(2, top.get(249).getAttempts());
+    }
+}
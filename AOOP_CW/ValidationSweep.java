@@ -0,0 +1,423 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+// Runs every string of one length over the equation alphabet (15^7 = 170,859,375 for length 7) through
+// the validation rules on all cores, then checks the result.
+//
+//   pass 1  NumberleModel.isValidEquation on every string, the same call processInput makes. It is timed
+//           on its own to give validations per second, and it fills a bitmap of the accepted strings that
+//           is reported as a count and a SHA-256.
+//   pass 2  compares pass 1 with Reference, a deliberately naive second evaluator (split on '=', tokens,
+//           BigInteger fractions, precedence in two rounds), and with validity.idx when one is present.
+//           It also counts how the rules treat edge cases (EdgeCase) that are easy to get wrong.
+//
+// As a nightly gate (sweep/nightly.sh) the report is checked against sweep/expected-<length>.properties,
+// which pins the exact accepted set, and against a per-machine throughput baseline. Any difference from the
+// reference evaluator or the index fails the gate as well.
+public final class ValidationSweep {
+    // Candidates per parallel task; a multiple of 8 so tasks never share a bitmap byte
+    private static final int BLOCK = 1 << 16;
+    private static final int MAX_EXAMPLES = 20;
+    private static final int MAX_LENGTH = 8;
+
+    enum EdgeCase {
+        NO_EQUALS, MULTIPLE_EQUALS, OPERATOR_AT_SIDE_START, OPERATOR_AT_SIDE_END, UNARY_MINUS,
+        ADJACENT_OPERATORS, LEADING_ZERO, DIVISION_BY_ZERO, UNEVEN_DIVISION;
+
+        String key() {
+            StringBuilder key = new StringBuilder();
+            for (String word : name().toLowerCase().split("_")) {
+                key.append(key.length() == 0 ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+            }
+            return key.toString();
+        }
+    }
+
+    private final int length;
+    private final long candidates;
+    private final byte[] accepted;
+    private final LongAdder[] edgeStrings = new LongAdder[EdgeCase.values().length];
+    private final LongAdder[] edgeAccepted = new LongAdder[EdgeCase.values().length];
+    private final LongAdder referenceDifferences = new LongAdder();
+    private final LongAdder indexDifferences = new LongAdder();
+    private final ConcurrentLinkedQueue<String> examples = new ConcurrentLinkedQueue<>();
+    private long validationNanos;
+
+    ValidationSweep(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Unsupported equation length: " + length);
+        }
+        this.length = length;
+        this.candidates = ValidityIndex.candidateCount(length);
+        this.accepted = new byte[(int) ((candidates + 7) >>> 3)];
+        for (int i = 0; i < edgeStrings.length; i++) {
+            edgeStrings[i] = new LongAdder();
+            edgeAccepted[i] = new LongAdder();
+        }
+    }
+
+    public Map<String, String> run() {
+        int blocks = (int) ((candidates + BLOCK - 1) / BLOCK);
+        long start = System.nanoTime();
+        IntStream.range(0, blocks).parallel().forEach(this::validateBlock);
+        validationNanos = System.nanoTime() - start;
+
+        ValidityIndex index = ValidityIndex.shared();
+        ValidityIndex sameLength = index != null && index.getLength() == length ? index : null;
+        IntStream.range(0, blocks).parallel().forEach(block -> checkBlock(block, sameLength));
+        return report(sameLength != null);
+    }
+
+    private void validateBlock(int block) {
+        long from = (long) block * BLOCK;
+        long to = Math.min(candidates, from + BLOCK);
+        char[] candidate = candidateAt(from);
+        for (long rank = from; rank < to; rank++) {
+            if (NumberleModel.isValidEquation(new String(candidate))) {
+                accepted[(int) (rank >>> 3)] |= (byte) (1 << (rank & 7));
+            }
+            increment(candidate);
+        }
+    }
+
+    private void checkBlock(int block, ValidityIndex index) {
+        long from = (long) block * BLOCK;
+        long to = Math.min(candidates, from + BLOCK);
+        char[] candidate = candidateAt(from);
+        long[] strings = new long[edgeStrings.length];
+        long[] acceptedCases = new long[edgeStrings.length];
+        for (long rank = from; rank < to; rank++) {
+            boolean valid = (accepted[(int) (rank >>> 3)] & (1 << (rank & 7))) != 0;
+            String text = new String(candidate);
+            int reference = Reference.check(text);
+            boolean expected = (reference & Reference.VALID) != 0;
+            if (valid != expected) {
+                referenceDifferences.increment();
+                if (examples.size() < MAX_EXAMPLES) {
+                    examples.add(text + (valid ? " accepted" : " rejected") + ", reference " + (expected ? "accepts" : "rejects"));
+                }
+            }
+            if (index != null && index.isValid(text) != valid) {
+                indexDifferences.increment();
+            }
+            int cases = edgeCases(candidate);
+            if ((reference & Reference.DIVISION_BY_ZERO) != 0) {
+                cases |= bit(EdgeCase.DIVISION_BY_ZERO);
+            }
+            if ((reference & Reference.UNEVEN_DIVISION) != 0) {
+                cases |= bit(EdgeCase.UNEVEN_DIVISION);
+            }
+            for (int c = 0; cases != 0; c++, cases >>>= 1) {
+                if ((cases & 1) != 0) {
+                    strings[c]++;
+                    if (valid) {
+                        acceptedCases[c]++;
+                    }
+                }
+            }
+            increment(candidate);
+        }
+        for (int c = 0; c < strings.length; c++) {
+            edgeStrings[c].add(strings[c]);
+            edgeAccepted[c].add(acceptedCases[c]);
+        }
+    }
+
+    // The edge cases that can be seen in the characters alone, as bits by EdgeCase ordinal
+    static int edgeCases(char[] s) {
+        int cases = 0;
+        int equals = 0;
+        for (int i = 0; i < s.length; i++) {
+            char c = s[i];
+            boolean sideStart = i == 0 || s[i - 1] == '=';
+            boolean sideEnd = i == s.length - 1 || s[i + 1] == '=';
+            if (c == '=') {
+                equals++;
+            } else if (isOperator(c)) {
+                if (sideStart) {
+                    cases |= bit(EdgeCase.OPERATOR_AT_SIDE_START);
+                }
+                if (sideEnd) {
+                    cases |= bit(EdgeCase.OPERATOR_AT_SIDE_END);
+                }
+                if (i > 0 && isOperator(s[i - 1])) {
+                    cases |= bit(EdgeCase.ADJACENT_OPERATORS);
+                }
+                if (c == '-' && (sideStart || isOperator(s[i - 1]))) {
+                    cases |= bit(EdgeCase.UNARY_MINUS);
+                }
+            } else if (c == '0' && i + 1 < s.length && Character.isDigit(s[i + 1])
+                    && (i == 0 || !Character.isDigit(s[i - 1]))) {
+                cases |= bit(EdgeCase.LEADING_ZERO);
+            }
+        }
+        if (equals == 0) {
+            cases |= bit(EdgeCase.NO_EQUALS);
+        } else if (equals > 1) {
+            cases |= bit(EdgeCase.MULTIPLE_EQUALS);
+        }
+        return cases;
+    }
+
+    private static int bit(EdgeCase edgeCase) {
+        return 1 << edgeCase.ordinal();
+    }
+
+    private static boolean isOperator(char c) {
+        return c == '+' || c == '-' || c == '*' || c == '/';
+    }
+
+    private Map<String, String> report(boolean indexChecked) {
+        Map<String, String> report = new LinkedHashMap<>();
+        long count = 0;
+        for (byte b : accepted) {
+            count += Integer.bitCount(b & 0xFF);
+        }
+        report.put("length", Integer.toString(length));
+        report.put("candidates", Long.toString(candidates));
+        report.put("accepted", Long.toString(count));
+        report.put("acceptedSha256", sha256(accepted));
+        report.put("referenceDifferences", Long.toString(referenceDifferences.sum()));
+        report.put("indexDifferences", indexChecked ? Long.toString(indexDifferences.sum()) : "none");
+        for (EdgeCase edgeCase : EdgeCase.values()) {
+            report.put("edge." + edgeCase.key() + ".strings", Long.toString(edgeStrings[edgeCase.ordinal()].sum()));
+            report.put("edge." + edgeCase.key() + ".accepted", Long.toString(edgeAccepted[edgeCase.ordinal()].sum()));
+        }
+        report.put("cores", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        report.put("validationMillis", Long.toString(validationNanos / 1_000_000));
+        report.put("validationsPerSecond", Long.toString(Math.round(candidates * 1e9 / validationNanos)));
+        return report;
+    }
+
+    List<String> examples() {
+        return new ArrayList<>(examples);
+    }
+
+    private char[] candidateAt(long rank) {
+        char[] candidate = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            candidate[i] = EquationAlphabet.symbolAt((int) (rank % EquationAlphabet.SIZE));
+            rank /= EquationAlphabet.SIZE;
+        }
+        return candidate;
+    }
+
+    private static void increment(char[] candidate) {
+        for (int i = candidate.length - 1; i >= 0; i--) {
+            int next = EquationAlphabet.indexOf(candidate[i]) + 1;
+            if (next < EquationAlphabet.SIZE) {
+                candidate[i] = EquationAlphabet.symbolAt(next);
+                return;
+            }
+            candidate[i] = EquationAlphabet.symbolAt(0);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The rules written out as plainly as possible, to cross-check EquationEvaluator: exactly one '=',
+    // each side is number (operator number)*, numbers have no leading zeros, * and / bind tighter than
+    // + and -, and both sides are compared as exact fractions.
+    static final class Reference {
+        static final int VALID = 1;
+        static final int DIVISION_BY_ZERO = 2;
+        static final int UNEVEN_DIVISION = 4;
+
+        private Reference() {
+        }
+
+        static int check(String equation) {
+            String[] sides = equation.split("=", -1);
+            if (sides.length != 2) {
+                return 0;
+            }
+            int[] flags = new int[1];
+            BigInteger[] left = side(sides[0], flags);
+            BigInteger[] right = side(sides[1], flags);
+            if (left == null || right == null) {
+                return flags[0];
+            }
+            return flags[0] | (left[0].equals(right[0]) && left[1].equals(right[1]) ? VALID : 0);
+        }
+
+        // Value of one side as a reduced fraction {numerator, denominator}, or null if it is malformed
+        private static BigInteger[] side(String side, int[] flags) {
+            List<String> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < side.length()) {
+                int start = i;
+                while (i < side.length() && Character.isDigit(side.charAt(i))) {
+                    i++;
+                }
+                String number = side.substring(start, i);
+                if (number.isEmpty() || number.length() > 1 && number.charAt(0) == '0') {
+                    return null;
+                }
+                tokens.add(number);
+                if (i < side.length()) {
+                    tokens.add(side.substring(i, i + 1));
+                    i++;
+                    if (i == side.length()) {
+                        return null; // trailing operator
+                    }
+                }
+            }
+            if (tokens.isEmpty()) {
+                return null;
+            }
+            // Round one: fold * and / into terms
+            List<BigInteger[]> terms = new ArrayList<>();
+            List<String> signs = new ArrayList<>();
+            BigInteger[] term = {new BigInteger(tokens.get(0)), BigInteger.ONE};
+            for (int t = 1; t < tokens.size(); t += 2) {
+                String op = tokens.get(t);
+                BigInteger value = new BigInteger(tokens.get(t + 1));
+                if (op.equals("*")) {
+                    term = reduce(term[0].multiply(value), term[1]);
+                } else if (op.equals("/")) {
+                    if (value.signum() == 0) {
+                        flags[0] |= DIVISION_BY_ZERO;
+                        return null;
+                    }
+                    term = reduce(term[0], term[1].multiply(value));
+                    if (!term[1].equals(BigInteger.ONE)) {
+                        flags[0] |= UNEVEN_DIVISION;
+                    }
+                } else {
+                    terms.add(term);
+                    signs.add(op);
+                    term = new BigInteger[]{value, BigInteger.ONE};
+                }
+            }
+            terms.add(term);
+            // Round two: add up the terms
+            BigInteger[] sum = terms.get(0);
+            for (int t = 1; t < terms.size(); t++) {
+                BigInteger[] next = terms.get(t);
+                BigInteger numerator = next[0].multiply(sum[1]);
+                sum = reduce(signs.get(t - 1).equals("+")
+                        ? sum[0].multiply(next[1]).add(numerator)
+                        : sum[0].multiply(next[1]).subtract(numerator), sum[1].multiply(next[1]));
+            }
+            return sum;
+        }
+
+        private static BigInteger[] reduce(BigInteger numerator, BigInteger denominator) {
+            BigInteger gcd = numerator.gcd(denominator);
+            return gcd.signum() == 0 ? new BigInteger[]{BigInteger.ZERO, BigInteger.ONE}
+                    : new BigInteger[]{numerator.divide(gcd), denominator.divide(gcd)};
+        }
+    }
+
+    // Usage: java ValidationSweep [--length n] [--report file] [--expect file] [--baseline file] [--tolerance 0.15]
+    //   --expect    every key in the file must match the report exactly (the accepted set and edge cases)
+    //   --baseline  validationsPerSecond must be at least (1 - tolerance) times the baseline's
+    // Exits with status 1 if the gate fails or the rules disagree with the reference evaluator.
+    public static void main(String[] args) throws IOException {
+        int length = 7;
+        String reportFile = null;
+        String expectFile = null;
+        String baselineFile = null;
+        double tolerance = 0.15;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--length":
+                    length = Integer.parseInt(value);
+                    break;
+                case "--report":
+                    reportFile = value;
+                    break;
+                case "--expect":
+                    expectFile = value;
+                    break;
+                case "--baseline":
+                    baselineFile = value;
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        ValidationSweep sweep = new ValidationSweep(length);
+        Map<String, String> report = sweep.run();
+        write(report, System.out);
+        if (reportFile != null) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(reportFile)), false, StandardCharsets.UTF_8)) {
+                write(report, out);
+            }
+        }
+
+        List<String> failures = new ArrayList<>();
+        for (String example : sweep.examples()) {
+            failures.add("reference differs: " + example);
+        }
+        if (!report.get("indexDifferences").equals("none") && !report.get("indexDifferences").equals("0")) {
+            failures.add("validity index differs from the rules in " + report.get("indexDifferences")
+                    + " strings; rebuild it and bump ValidityIndex.RULES_VERSION");
+        }
+        if (expectFile != null) {
+            for (Map.Entry<Object, Object> expected : read(Paths.get(expectFile)).entrySet()) {
+                String actual = report.get((String) expected.getKey());
+                if (!expected.getValue().equals(actual)) {
+                    failures.add(expected.getKey() + " is " + actual + ", expected " + expected.getValue());
+                }
+            }
+        }
+        if (baselineFile != null) {
+            long baseline = Long.parseLong(read(Paths.get(baselineFile)).getProperty("validationsPerSecond"));
+            long measured = Long.parseLong(report.get("validationsPerSecond"));
+            if (measured < baseline * (1 - tolerance)) {
+                failures.add("validationsPerSecond dropped to " + measured + " from a baseline of " + baseline);
+            }
+        }
+        for (String failure : failures) {
+            System.out.println("FAIL " + failure);
+        }
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void write(Map<String, String> report, PrintStream out) {
+        for (Map.Entry<String, String> entry : report.entrySet()) {
+            out.println(entry.getKey() + "=" + entry.getValue());
+        }
+    }
+
+    private static Properties read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+}
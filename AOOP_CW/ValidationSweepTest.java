@@ -0,0 +1,31 @@
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationSweepTest {
+
+    @Test
+    void testValidationSweepAgreesWithReference() {
+        assertEquals(ValidationSweep.Reference.VALID, ValidationSweep.Reference.check("1+2+3=6"));
+        assertEquals(ValidationSweep.Reference.VALID | ValidationSweep.Reference.UNEVEN_DIVISION,
+                ValidationSweep.Reference.check("6/4*2=3"), "Division is exact, not truncating.");
+        assertEquals(ValidationSweep.Reference.DIVISION_BY_ZERO, ValidationSweep.Reference.check("1/0=1"));
+        assertEquals(0, ValidationSweep.Reference.check("-1+2=1"), "Unary minus is not allowed.");
+        assertEquals(0, ValidationSweep.Reference.check("1=1=1"));
+        assertEquals(0, ValidationSweep.Reference.check("01+1=2"));
+        int cases = ValidationSweep.edgeCases("3=-3*-1".toCharArray());
+        assertTrue((cases & 1 << ValidationSweep.EdgeCase.UNARY_MINUS.ordinal()) != 0);
+        assertTrue((cases & 1 << ValidationSweep.EdgeCase.ADJACENT_OPERATORS.ordinal()) != 0);
+        assertTrue((cases & 1 << ValidationSweep.EdgeCase.OPERATOR_AT_SIDE_START.ordinal()) != 0);
+        assertEquals(0, cases & 1 << ValidationSweep.EdgeCase.MULTIPLE_EQUALS.ordinal());
+
+        Map<String, String> report = new ValidationSweep(5).run();
+        assertEquals("759375", report.get("candidates"));
+        assertEquals("458", report.get("accepted"));
+        assertEquals("0", report.get("referenceDifferences"));
+        assertEquals("0", report.get("edge.multipleEquals.accepted"));
+        assertEquals("0", report.get("edge.unaryMinus.accepted"));
+        assertEquals("0", report.get("edge.divisionByZero.accepted"));
+        assertTrue(Long.parseLong(report.get("validationsPerSecond")) > 0);
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+// Precomputed bitmap with one bit for every string of the given length over the equation alphabet.
+// Bit number n belongs to the string whose base-15 digits (see EquationAlphabet) spell n.
+public final class ValidityIndex {
+    public static final String PATH_PROPERTY = "numberle.validityIndex";
+    public static final String DEFAULT_PATH = "validity.idx";
+
+    // Bump whenever the validation rules change so that stale index files are ignored
+    static final int RULES_VERSION = 2;
+
+    private static final int MAGIC = 0x4E564958; // "NVIX"
+    private static final int HEADER_BYTES = 16;  // magic, rules version, length, reserved
+    private static final int MAX_LENGTH = 8;     // 15^8 bits is 320 MB, the largest bitmap worth mapping
+    private static final int BLOCK_BYTES = 1 << 14;
+
+    private final MappedByteBuffer bitmap;
+    private final int length;
+
+    private ValidityIndex(MappedByteBuffer bitmap, int length) {
+        this.bitmap = bitmap;
+        this.length = length;
+    }
+
+    // Lazily loaded once per JVM from -Dnumberle.validityIndex (or ./validity.idx)
+    private static final class Shared {
+        static final ValidityIndex INSTANCE = load(Paths.get(System.getProperty(PATH_PROPERTY, DEFAULT_PATH)));
+    }
+
+    // Returns the JVM-wide index, or null when no usable index file exists
+    public static ValidityIndex shared() {
+        return Shared.INSTANCE;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    // O(1) and allocation-free: rank the input and test its bit
+    public boolean isValid(CharSequence input) {
+        if (input.length() != length) {
+            return false;
+        }
+        long rank = 0; // 15^8 is past Integer.MAX_VALUE
+        for (int i = 0; i < length; i++) {
+            int symbol = EquationAlphabet.indexOf(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            rank = rank * EquationAlphabet.SIZE + symbol;
+        }
+        return (bitmap.get(HEADER_BYTES + (int) (rank >>> 3)) & (1 << (rank & 7))) != 0;
+    }
+
+    // Maps an existing index file; returns null if it is missing, truncated or built for other rules
+    public static ValidityIndex load(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int length = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != RULES_VERSION
+                    || length < 1 || length > MAX_LENGTH
+                    || channel.size() != HEADER_BYTES + bitmapBytes(length)) {
+                return null;
+            }
+            return new ValidityIndex(buffer, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Enumerates every candidate of the given length in parallel and writes the bitmap of those accepted by rule
+    public static void build(Path path, int length, Predicate<String> rule) throws IOException {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Unsupported equation length: " + length);
+        }
+        long candidates = candidateCount(length);
+        int bytes = bitmapBytes(length);
+        byte[] bits = new byte[bytes];
+        int blocks = (bytes + BLOCK_BYTES - 1) / BLOCK_BYTES;
+
+        // Blocks cover whole bytes, so no two workers ever write the same byte
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            long start = (long) block * BLOCK_BYTES * 8;
+            long end = Math.min(candidates, start + (long) BLOCK_BYTES * 8);
+            char[] candidate = new char[length];
+            long remainder = start;
+            for (int i = length - 1; i >= 0; i--) {
+                candidate[i] = EquationAlphabet.symbolAt((int) (remainder % EquationAlphabet.SIZE));
+                remainder /= EquationAlphabet.SIZE;
+            }
+            for (long rank = start; rank < end; rank++) {
+                if (rule.test(new String(candidate))) {
+                    bits[(int) (rank >>> 3)] |= (byte) (1 << (rank & 7));
+                }
+                increment(candidate);
+            }
+        });
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) bytes);
+            out.putInt(MAGIC).putInt(RULES_VERSION).putInt(length).putInt(0);
+            out.put(bits);
+            out.force();
+        }
+    }
+
+    private static void increment(char[] candidate) {
+        for (int i = candidate.length - 1; i >= 0; i--) {
+            int next = EquationAlphabet.indexOf(candidate[i]) + 1;
+            if (next < EquationAlphabet.SIZE) {
+                candidate[i] = EquationAlphabet.symbolAt(next);
+                return;
+            }
+            candidate[i] = EquationAlphabet.symbolAt(0);
+        }
+    }
+
+    static long candidateCount(int length) {
+        long count = 1;
+        for (int i = 0; i < length; i++) {
+            count *= EquationAlphabet.SIZE;
+        }
+        return count;
+    }
+
+    private static int bitmapBytes(int length) {
+        return (int) ((candidateCount(length) + 7) >>> 3);
+    }
+
+    // Usage: java ValidityIndex [output path]
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : DEFAULT_PATH);
+        long start = System.nanoTime();
+        build(path, 7, NumberleModel::isValidEquation);
+        System.out.println("Validity index written to " + path + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
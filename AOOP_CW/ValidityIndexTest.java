@@ -0,0 +1,20 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidityIndexTest {
+
+    @Test
+    void testValidityIndexMatchesRules(@TempDir Path dir) throws Exception {
+        // A 5-symbol index is small enough to build in a unit test
+        Path indexFile = dir.resolve("validity5.idx");
+        ValidityIndex.build(indexFile, 5, input -> input.equals("1+2=3"));
+        ValidityIndex index = ValidityIndex.load(indexFile);
+        assertNotNull(index, "A freshly built index should load");
+        assertTrue(index.isValid("1+2=3"), "The index should accept what the rule accepts.");
+        assertFalse(index.isValid("1+2=4"), "The index should reject what the rule rejects.");
+        assertFalse(index.isValid("1+2=a"), "Symbols outside the alphabet should be rejected.");
+        assertFalse(index.isValid("1+2+3=6"), "Inputs of another length should be rejected.");
+    }
+}
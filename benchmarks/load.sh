@@ -0,0 +1,20 @@
+#!/bin/sh
+# Compiles the game and runs LoadGenerator once per thread count, writing one report per run to
+# results/load-<mode>-<threads>t.properties. THREADS picks the sweep (default "1 2 4 8"); extra arguments
+# go to every run, e.g. ./load.sh --mode open --rate 200000 --players 10000
+set -e
+cd "$(dirname "$0")"
+mkdir -p out results
+javac -encoding UTF-8 -d out $(ls ../AOOP_CW/*.java | grep -v 'Test\.java$')
+cp ../AOOP_CW/equations.txt out/ # EquationDictionary.RESOURCE, found on the classpath
+MODE=closed
+for arg in "$@"; do
+    [ "$prev" = "--mode" ] && MODE="$arg"
+    prev="$arg"
+done
+for threads in ${THREADS:-1 2 4 8}; do
+    java -Dnumberle.journal=off -cp out LoadGenerator --threads "$threads" "$@" \
+        --report "results/load-$MODE-${threads}t.properties" > /dev/null
+    echo "results/load-$MODE-${threads}t.properties"
+    grep -E '^(throughput.mean|guess\.p(50|99|999)Micros|guess.maxMicros)=' "results/load-$MODE-${threads}t.properties" | sed 's/^/  /'
+done
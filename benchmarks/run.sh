@@ -0,0 +1,16 @@
+#!/bin/sh
+# Compiles the game and the benchmarks with the JMH annotation processor, then runs them with the
+# GC profiler. Extra arguments go to JMH, e.g. ./run.sh processInput -p dictionarySize=1000
+set -e
+cd "$(dirname "$0")"
+REPO="${MAVEN_REPOSITORY:-$HOME/.m2/repository}"
+CP="$REPO/org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar"
+CP="$CP:$REPO/org/openjdk/jmh/jmh-generator-annprocess/1.37/jmh-generator-annprocess-1.37.jar"
+CP="$CP:$REPO/net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar"
+CP="$CP:$REPO/org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar"
+
+rm -rf out && mkdir -p out results
+javac -encoding UTF-8 -d out $(ls ../AOOP_CW/*.java | grep -v 'Test\.java$')
+cp ../AOOP_CW/equations.txt out/ # EquationDictionary.RESOURCE, found on the classpath
+javac -encoding UTF-8 -cp "out:$CP" -d out $(find src -name '*.java')
+java -cp "out:$CP" org.openjdk.jmh.Main -prof gc -rf json -rff results/latest.json "$@"
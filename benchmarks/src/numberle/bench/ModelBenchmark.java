@@ -0,0 +1,182 @@
+package numberle.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Hot paths of NumberleModel. Run with the GC profiler so every result carries its allocation rate:
+//   java -jar benchmarks.jar -prof gc
+// The game classes live in the unnamed package, which JMH benchmarks cannot import, so they are
+// reached through constant method handles that the JIT inlines like direct calls.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModelBenchmark {
+    private static final MethodHandle NEW_MODEL;
+    private static final MethodHandle INITIALIZE;
+    private static final MethodHandle PROCESS_INPUT;
+    private static final MethodHandle IS_GAME_OVER;
+    private static final MethodHandle GET_TARGET;
+    private static final MethodHandle UPDATE_GUESS;
+    private static final MethodHandle LOAD_DICTIONARY;
+    private static final MethodHandle BALANCES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> model = Class.forName("NumberleModel");
+            MethodHandles.Lookup inside = MethodHandles.privateLookupIn(model, lookup);
+            NEW_MODEL = lookup.findConstructor(model, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            INITIALIZE = lookup.findVirtual(model, "initialize", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            PROCESS_INPUT = lookup.findVirtual(model, "processInput", MethodType.methodType(boolean.class, String.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class, String.class));
+            IS_GAME_OVER = lookup.findVirtual(model, "isGameOver", MethodType.methodType(boolean.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            GET_TARGET = lookup.findVirtual(model, "getTargetNumber", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            UPDATE_GUESS = inside.findVirtual(model, "updateGuessAndCheckWin", MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(void.class, Object.class, String.class));
+            Class<?> dictionary = Class.forName("EquationDictionary");
+            LOAD_DICTIONARY = lookup.findStatic(dictionary, "load", MethodType.methodType(dictionary, Path.class))
+                    .asType(MethodType.methodType(Object.class, Path.class));
+            Class<?> evaluator = Class.forName("EquationEvaluator");
+            BALANCES = lookup.findStatic(evaluator, "balances", MethodType.methodType(boolean.class, CharSequence.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"100", "1000", "5000"})
+    public int dictionarySize;
+
+    private Path dictionaryFile;
+    private Object model;
+    private String validGuess;
+    private int guessesThisGame;
+
+    private final String invalidFormat = "12a+3=5";
+    private final String unbalanced = "1+2+3=7";
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        dictionaryFile = Files.createTempFile("numberle-bench", ".txt");
+        Files.write(dictionaryFile, generateEquations(dictionarySize));
+        System.setProperty("numberle.equations", dictionaryFile.toString());
+        model = NEW_MODEL.invokeExact();
+        INITIALIZE.invokeExact(model);
+        String target = (String) GET_TARGET.invokeExact(model);
+        validGuess = target.equals("1+2+3=6") ? "2+3+1=6" : "1+2+3=6";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dictionaryFile);
+    }
+
+    // A game allows only MAX_ATTEMPTS guesses, so state-changing benchmarks start a new game when it ends;
+    // the amortized initialize() cost is measured on its own below
+    private void restartIfOver() throws Throwable {
+        if ((boolean) IS_GAME_OVER.invokeExact(model) || ++guessesThisGame > 6) {
+            INITIALIZE.invokeExact(model);
+            guessesThisGame = 0;
+        }
+    }
+
+    @Benchmark
+    public boolean processInputValid() throws Throwable {
+        restartIfOver();
+        return (boolean) PROCESS_INPUT.invokeExact(model, validGuess);
+    }
+
+    @Benchmark
+    public boolean processInputInvalidFormat() throws Throwable {
+        return (boolean) PROCESS_INPUT.invokeExact(model, invalidFormat);
+    }
+
+    @Benchmark
+    public boolean processInputUnbalanced() throws Throwable {
+        return (boolean) PROCESS_INPUT.invokeExact(model, unbalanced);
+    }
+
+    // Successor of the old Stack<Double> eval
+    @Benchmark
+    public boolean eval() throws Throwable {
+        return (boolean) BALANCES.invokeExact((CharSequence) validGuess);
+    }
+
+    @Benchmark
+    public void updateGuessAndCheckWin() throws Throwable {
+        restartIfOver();
+        UPDATE_GUESS.invokeExact(model, validGuess);
+    }
+
+    // Loading moved from NumberleModel.loadEquationsFromFile to EquationDictionary.load
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object loadEquationsFromFile() throws Throwable {
+        return LOAD_DICTIONARY.invokeExact(dictionaryFile);
+    }
+
+    @Benchmark
+    public void initialize() throws Throwable {
+        INITIALIZE.invokeExact(model);
+    }
+
+    // Distinct 7-symbol "x op y = z" equations, repeated if more are requested than exist
+    static List<String> generateEquations(int count) {
+        List<String> distinct = new ArrayList<>();
+        String operators = "+-*/";
+        for (int x = 0; x < 1000; x++) {
+            for (int y = 0; y < 1000; y++) {
+                for (char op : operators.toCharArray()) {
+                    long value;
+                    if (op == '+') {
+                        value = x + y;
+                    } else if (op == '-') {
+                        value = x - y;
+                    } else if (op == '*') {
+                        value = (long) x * y;
+                    } else if (y != 0 && x % y == 0) {
+                        value = x / y;
+                    } else {
+                        continue;
+                    }
+                    String equation = "" + x + op + y + "=" + value;
+                    if (value >= 0 && equation.length() == 7) {
+                        distinct.add(equation);
+                    }
+                }
+            }
+        }
+        List<String> equations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            equations.add(distinct.get(i % distinct.size()));
+        }
+        return equations;
+    }
+}
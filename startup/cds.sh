@@ -0,0 +1,21 @@
+#!/bin/sh
+# Packs the game into out/numberle.jar and builds an application class-data-sharing archive from one
+# training start of GUIApp (needs a display). Later starts map the archived classes instead of parsing
+# and verifying them:
+#   java -XX:SharedArchiveFile=startup/out/numberle.jsa -cp startup/out/numberle.jar GUIApp
+# The archive is only used with the same JDK and the same jar; rerun this after either changes.
+# Extra arguments go to the JVM of the training start; pass the same ones to measure.sh.
+set -e
+cd "$(dirname "$0")"
+
+rm -rf out && mkdir -p out/classes
+javac -encoding UTF-8 --release 11 -d out/classes $(ls ../AOOP_CW/*.java | grep -v 'Test\.java$')
+cp ../AOOP_CW/equations.txt out/classes/
+jar --create --file out/numberle.jar -C out/classes .
+
+# CDS only archives classes loaded from jars, so train against the jar, never the classes directory
+java -Xshare:off -XX:DumpLoadedClassList=out/classes.lst -Dnumberle.startup.measure=true \
+    -Dnumberle.journal=off "$@" -cp out/numberle.jar GUIApp
+java -Xshare:dump -XX:SharedClassListFile=out/classes.lst -XX:SharedArchiveFile=out/numberle.jsa \
+    -cp out/numberle.jar
+echo "Archive written to $(pwd)/out/numberle.jsa"
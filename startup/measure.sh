@@ -0,0 +1,54 @@
+#!/bin/sh
+# Starts GUIApp RUNS times (default 5) with the CDS archive from cds.sh, takes the median time from JVM
+# start to the first frame and to the first playable frame, and fails if either is over the budget in
+# target.properties. Needs a display; without DISPLAY it runs under xvfb-run when that is installed.
+# Run cds.sh first. Extra arguments go to the JVM.
+#
+# RECORD=1 ./measure.sh measures instead of checking: it writes the medians, the machine and the JDK
+# to target.properties, with budgets 50% above the medians. Record on the reference machine and commit.
+set -e
+cd "$(dirname "$0")"
+if [ -z "$DISPLAY" ] && [ -z "$MEASURE_UNDER_XVFB" ] && command -v xvfb-run > /dev/null; then
+    MEASURE_UNDER_XVFB=1 exec xvfb-run -a "$0" "$@"
+fi
+. ./target.properties
+RUNS="${RUNS:-5}"
+[ -f out/numberle.jsa ] || { echo "Run cds.sh first"; exit 2; }
+if [ -z "$RECORD" ] && { [ -z "$firstFrameMillis" ] || [ -z "$readyMillis" ]; }; then
+    echo "No measured startup target in target.properties; record one with RECORD=1 ./measure.sh"
+    exit 2
+fi
+
+i=0
+: > out/startup.txt
+while [ "$i" -lt "$RUNS" ]; do
+    java -XX:SharedArchiveFile=out/numberle.jsa -Xshare:auto -Dnumberle.startup.measure=true \
+        -Dnumberle.journal=off "$@" -cp out/numberle.jar GUIApp | grep '^startup ' >> out/startup.txt
+    i=$((i + 1))
+done
+
+median() {
+    sed -n "s/.*$1=\([0-9]*\).*/\1/p" out/startup.txt | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+first=$(median firstFrameMillis)
+ready=$(median readyMillis)
+
+if [ -n "$RECORD" ]; then
+    {
+        echo "# Startup budget for GUIApp in milliseconds since JVM start, checked by measure.sh (median of"
+        echo "# $RUNS starts, with the CDS archive from cds.sh and the bundled 7-symbol dictionary)."
+        echo "# firstFrameMillis: the window is on screen with its progress bar"
+        echo "# readyMillis: the dictionary is loaded and input is enabled"
+        echo "# Measured $(date -u +%F): first frame $first ms, playable $ready ms"
+        echo "# machine: $(sed -n 's/^model name[[:space:]]*: //p' /proc/cpuinfo 2>/dev/null | head -1), $(nproc) cores, DISPLAY=${DISPLAY:-none}"
+        [ $# -eq 0 ] || echo "# extra JVM arguments: $*"
+        echo "# jdk: $(java -version 2>&1 | head -1)"
+        echo "# Budgets are the medians plus 50%, for run-to-run noise."
+        echo "firstFrameMillis=$((first * 3 / 2))"
+        echo "readyMillis=$((ready * 3 / 2))"
+    } > target.properties
+    echo "median of $RUNS starts: first frame ${first} ms, playable ${ready} ms; budgets written to target.properties"
+    exit 0
+fi
+echo "median of $RUNS starts: first frame ${first} ms (target ${firstFrameMillis}), playable ${ready} ms (target ${readyMillis})"
+[ "$first" -le "$firstFrameMillis" ] && [ "$ready" -le "$readyMillis" ]
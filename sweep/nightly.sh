@@ -0,0 +1,44 @@
+#!/bin/sh
+# Nightly gate for the validation rules: sweeps every 7-symbol string (see ValidationSweep) and fails if
+# the accepted set differs from expected-7.properties, if the rules disagree with the reference evaluator
+# or with the validity index, or if validations per second fell more than 15% below the throughput
+# baseline of the machine type running it.
+#
+# Baselines are checked in as baselines/<name>.properties. SWEEP_BASELINE=<name> picks one (or pass
+# --baseline <file>); the run fails if it is missing. To add one for a new machine type, run once with
+# RECORD_BASELINE=<name> on that machine type and commit the file it writes.
+# Extra arguments go to ValidationSweep, e.g. ./nightly.sh --tolerance 0.1
+set -e
+cd "$(dirname "$0")"
+
+case " $* " in
+    *" --baseline "*) ;;
+    *)
+        if [ -z "$RECORD_BASELINE" ]; then
+            if [ -z "$SWEEP_BASELINE" ]; then
+                echo "Set SWEEP_BASELINE to one of: $(ls baselines | sed 's/\.properties$//' | tr '\n' ' ')"
+                exit 2
+            fi
+            BASELINE="baselines/$SWEEP_BASELINE.properties"
+            [ -f "$BASELINE" ] || { echo "No throughput baseline $BASELINE"; exit 2; }
+            set -- --baseline "$BASELINE" "$@"
+        fi
+        ;;
+esac
+
+rm -rf out && mkdir -p out
+javac -encoding UTF-8 -d out $(ls ../AOOP_CW/*.java | grep -v 'Test\.java$')
+java -Dnumberle.journal=off -Dnumberle.validityIndex="${VALIDITY_INDEX:-../validity.idx}" -cp out \
+    ValidationSweep --length 7 --expect expected-7.properties --report out/latest.properties "$@"
+
+if [ -n "$RECORD_BASELINE" ]; then
+    mkdir -p baselines
+    BASELINE="baselines/$RECORD_BASELINE.properties"
+    {
+        echo "# Throughput baseline for the nightly sweep, recorded $(date -u +%F)"
+        echo "# machine: $(sed -n 's/^model name[[:space:]]*: //p' /proc/cpuinfo 2>/dev/null | head -1)"
+        echo "# jdk: $(java -version 2>&1 | head -1)"
+        grep -E '^(cores|validationsPerSecond)=' out/latest.properties
+    } > "$BASELINE"
+    echo "Recorded throughput baseline $BASELINE; commit it to gate later runs"
+fi